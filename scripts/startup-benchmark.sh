@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# 기동 시간 비교: fat jar / 압축 해제 jar / 압축 해제 jar + AppCDS / 네이티브 이미지
+# - 모든 모드를 cds 프로파일 + spring.context.exit=onRefresh 로 실행 → Redis / Oracle 없이 컨텍스트 refresh 까지 측정
+# - 사전 준비: mvn -Pcds -DskipTests package  (네이티브: mvn -Pnative -DskipTests native:compile)
+#
+# 사용법: scripts/startup-benchmark.sh [반복 횟수, 기본 5]
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="$ROOT/target"
+APP_NAME="loan-api-0.0.1-SNAPSHOT"
+FAT_JAR="$TARGET/$APP_NAME.jar"
+CDS_DIR="$TARGET/application"
+NATIVE_BIN="$TARGET/loan-api"
+APP_ARGS=(-Dspring.context.exit=onRefresh -Dspring.profiles.active=cds)
+
+# 명령을 RUNS 번 실행해 평균 / 최소 경과 시간(ms) 출력
+measure() {
+  local label="$1"; shift
+  local total=0 best=0
+  for ((i = 1; i <= RUNS; i++)); do
+    local start end elapsed
+    start=$(date +%s%N)
+    "$@" > /dev/null 2>&1
+    end=$(date +%s%N)
+    elapsed=$(( (end - start) / 1000000 ))
+    total=$(( total + elapsed ))
+    if (( best == 0 || elapsed < best )); then best=$elapsed; fi
+  done
+  printf '%-28s avg %6d ms   min %6d ms\n' "$label" $(( total / RUNS )) "$best"
+}
+
+if [[ ! -f "$FAT_JAR" ]]; then
+  echo "jar 없음: $FAT_JAR (mvn -Pcds -DskipTests package 먼저 실행)" >&2
+  exit 1
+fi
+
+echo "반복 횟수: $RUNS"
+measure "fat jar" java "${APP_ARGS[@]}" -jar "$FAT_JAR"
+
+if [[ -f "$CDS_DIR/$APP_NAME.jar" ]]; then
+  measure "extracted jar" java -Xshare:auto "${APP_ARGS[@]}" -jar "$CDS_DIR/$APP_NAME.jar"
+fi
+
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+  measure "extracted jar + AppCDS" \
+    java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" "${APP_ARGS[@]}" -jar "$CDS_DIR/$APP_NAME.jar"
+else
+  echo "AppCDS 아카이브 없음 - 건너뜀 (mvn -Pcds -DskipTests package)"
+fi
+
+if [[ -x "$NATIVE_BIN" ]]; then
+  measure "native image" "$NATIVE_BIN" "${APP_ARGS[@]}"
+else
+  echo "네이티브 이미지 없음 - 건너뜀 (mvn -Pnative -DskipTests native:compile)"
+fi
@@ -4,11 +4,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.fintech.loan.config.LoanRuntimeHints;
 
 
 @SpringBootApplication
 @EnableScheduling
 @EnableCaching
+@ImportRuntimeHints(LoanRuntimeHints.class)
 public class LoanServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,69 @@
+package com.fintech.loan.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch (loanId 빈도 추정용)
+ * - depth x width 카운터, 추정값은 각 행의 최솟값 (과대추정만 발생, 과소추정 없음)
+ * - 락 없이 AtomicLongArray 로 증가
+ * - halve() 로 주기적으로 절반 감쇠 → 최근 접근 빈도 위주로 유지
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray[] rows;
+    private final long[] seeds;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth, width 는 0보다 커야 합니다: depth=" + depth + ", width=" + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.rows = new AtomicLongArray[depth];
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            rows[i] = new AtomicLongArray(width);
+            seeds[i] = 0x9E3779B97F4A7C15L * (i + 1);
+        }
+    }
+
+    /** 1 증가 후 추정 빈도 반환 */
+    public long add(long item) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, rows[i].incrementAndGet(index(item, i)));
+        }
+        return min;
+    }
+
+    /** 추정 빈도 */
+    public long estimate(long item) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, rows[i].get(index(item, i)));
+        }
+        return min;
+    }
+
+    /** 모든 카운터 절반 감쇠 (aging) */
+    public void halve() {
+        for (AtomicLongArray row : rows) {
+            for (int j = 0; j < width; j++) {
+                long value;
+                do {
+                    value = row.get(j);
+                } while (value != 0 && !row.compareAndSet(j, value, value >>> 1));
+            }
+        }
+    }
+
+    private int index(long item, int row) {
+        long h = item * seeds[row];
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        return (int) Math.floorMod(h, (long) width);
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintech.loan.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.domain.LoanSegment;
+import com.fintech.loan.domain.SegmentAttribute;
+import com.fintech.loan.repository.LoanRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * loanId → 세그먼트 순위 ZSet 키 (로컬 인덱스)
+ * - 키: PopularityKeyLayout.segmentKeyFor (클러스터 모드에서는 loanId 의 전체 순위 샤드와 같은 슬롯)
+ * - 처음 보는 loanId 만 DB 에서 속성 조회 (bank / purpose / jobType 프로젝션)
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanSegmentIndex {
+
+    private static final int LOAD_CHUNK_SIZE = 500;    // Oracle IN 목록 1000개 제한
+
+    private final LoanRepository loanRepository;
+    private final PopularityKeyLayout keyLayout;
+
+    private final Map<Long, List<String>> keysById = new ConcurrentHashMap<>();
+
+    /** loanId 별 세그먼트 키 (없는 상품은 빈 목록) */
+    public Map<Long, List<String>> keysFor(Collection<Long> loanIds) {
+        List<Long> missing = loanIds.stream().filter(id -> !keysById.containsKey(id)).distinct().collect(Collectors.toList());
+        for (int from = 0; from < missing.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + LOAD_CHUNK_SIZE, missing.size()));
+            for (LoanSegment segment : loanRepository.findSegmentsByIdIn(chunk)) {
+                keysById.put(segment.getId(), keysOf(segment));
+            }
+            chunk.forEach(id -> keysById.putIfAbsent(id, Collections.emptyList()));
+        }
+
+        Map<Long, List<String>> keys = new HashMap<>();
+        loanIds.forEach(id -> keys.put(id, keysById.getOrDefault(id, Collections.emptyList())));
+        return keys;
+    }
+
+    /** 상품 변경 시 인덱스 제거 (제거 전 키 반환) */
+    public Map<Long, List<String>> invalidate(Collection<Long> loanIds) {
+        Map<Long, List<String>> previous = new HashMap<>();
+        for (Long loanId : loanIds) {
+            List<String> keys = keysById.remove(loanId);
+            if (keys != null) {
+                previous.put(loanId, keys);
+            }
+        }
+        return previous;
+    }
+
+    private List<String> keysOf(LoanSegment segment) {
+        List<String> keys = new ArrayList<>(SegmentAttribute.values().length);
+        for (SegmentAttribute attribute : SegmentAttribute.values()) {
+            String value = attribute.valueOf(segment);
+            if (value != null && !value.isBlank()) {
+                keys.add(keyLayout.segmentKeyFor(attribute.getCode(), value, segment.getId()));
+            }
+        }
+        return keys;
+    }
+}
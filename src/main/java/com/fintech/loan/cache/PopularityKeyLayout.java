@@ -0,0 +1,94 @@
+package com.fintech.loan.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+/**
+ * 인기 순위 ZSet 키 배치
+ * - 단일 모드: 기존 loan:loanData 하나
+ * - 클러스터 모드: loan:loanData:{pN} K개로 분할, loanId 는 Jump Consistent Hash 로 샤드 결정
+ *   (해시 태그 {pN} 로 샤드별 보조 키를 같은 슬롯에 둘 수 있음)
+ * - 세그먼트 순위 키도 같은 방식: 단일 모드 loan:rank:{attribute:value},
+ *   클러스터 모드 loan:rank:attribute:value:{pN} (loanId 의 전체 순위 샤드와 같은 슬롯)
+ */
+@Component
+public class PopularityKeyLayout {
+
+    public static final String LEGACY_KEY = "loan:loanData";
+    private static final String SHARD_KEY_FORMAT = "loan:loanData:{p%d}";
+    private static final String SEGMENT_KEY_FORMAT = "loan:rank:{%s:%s}";
+    private static final String SEGMENT_SHARD_KEY_FORMAT = "loan:rank:%s:%s:{p%d}";
+
+    @Getter
+    private final boolean clusterMode;
+    private final List<String> shardKeys;
+
+    public PopularityKeyLayout(@Value("${loan.redis.cluster-mode:false}") boolean clusterMode,
+                               @Value("${loan.redis.popularity-shards:8}") int shardCount) {
+        if (clusterMode && shardCount <= 0) {
+            throw new IllegalArgumentException("loan.redis.popularity-shards 는 0보다 커야 합니다: " + shardCount);
+        }
+        this.clusterMode = clusterMode;
+
+        List<String> keys = new ArrayList<>();
+        if (clusterMode) {
+            for (int i = 0; i < shardCount; i++) {
+                keys.add(String.format(SHARD_KEY_FORMAT, i));
+            }
+        } else {
+            keys.add(LEGACY_KEY);
+        }
+        this.shardKeys = Collections.unmodifiableList(keys);
+    }
+
+    /** loanId 가 속한 ZSet 키 */
+    public String keyFor(Long loanId) {
+        if (shardKeys.size() == 1) {
+            return shardKeys.get(0);
+        }
+        return shardKeys.get(jumpConsistentHash(loanId, shardKeys.size()));
+    }
+
+    /** 전체 ZSet 키 (scatter-gather / 감쇠 / 동기화용) */
+    public List<String> allKeys() {
+        return shardKeys;
+    }
+
+    /** loanId 가 속한 세그먼트 순위 ZSet 키 (전체 순위와 같은 샤드) */
+    public String segmentKeyFor(String attribute, String value, Long loanId) {
+        if (shardKeys.size() == 1) {
+            return String.format(SEGMENT_KEY_FORMAT, attribute, value);
+        }
+        return String.format(SEGMENT_SHARD_KEY_FORMAT, attribute, value, jumpConsistentHash(loanId, shardKeys.size()));
+    }
+
+    /** 세그먼트의 전체 샤드 키 (Top N scatter-gather 용) */
+    public List<String> segmentKeys(String attribute, String value) {
+        if (shardKeys.size() == 1) {
+            return List.of(String.format(SEGMENT_KEY_FORMAT, attribute, value));
+        }
+        List<String> keys = new ArrayList<>(shardKeys.size());
+        for (int i = 0; i < shardKeys.size(); i++) {
+            keys.add(String.format(SEGMENT_SHARD_KEY_FORMAT, attribute, value, i));
+        }
+        return keys;
+    }
+
+    /** Lamping & Veach Jump Consistent Hash: 샤드 수 변경 시 1/K 만 이동 */
+    static int jumpConsistentHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
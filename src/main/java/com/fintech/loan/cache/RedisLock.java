@@ -0,0 +1,40 @@
+package com.fintech.loan.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 인스턴스 간 작업 락 (SET NX + TTL)
+ * - 획득한 인스턴스만 아는 토큰을 값으로 저장
+ * - 해제는 Lua compare-and-delete → TTL 이 지나 다른 인스턴스가 잡은 락은 지우지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLock {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /** @return 락 토큰 (다른 인스턴스가 보유 중이면 null) */
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        return Boolean.TRUE.equals(locked) ? token : null;
+    }
+
+    /** 자기 토큰일 때만 해제 (값 직렬화기가 같으므로 ARGV 도 저장된 값과 같은 형태로 전달됨) */
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+}
@@ -0,0 +1,43 @@
+package com.fintech.loan.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.domain.RollupPeriod;
+import com.fintech.loan.domain.ViewStatDTO;
+import com.fintech.loan.domain.entity.Loan;
+import com.fintech.loan.domain.entity.LoanProductEvent;
+import com.fintech.loan.domain.entity.LoanView;
+
+/**
+ * 네이티브 이미지용 리플렉션 힌트 (-Pnative)
+ * - 엔티티: Hibernate 필드 접근 / 프록시 생성
+ * - DTO: Jackson 응답 직렬화
+ * - Redis 값: Jackson2JsonRedisSerializer(Object.class) 는 필드 가시성 ANY 로 Map / List / 숫자로 역직렬화
+ */
+public class LoanRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : new Class<?>[] { Loan.class, LoanView.class, LoanProductEvent.class }) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                LoanDTO.class, ViewStatDTO.class, RollupPeriod.class);
+
+        for (Class<?> redisValue : new Class<?>[] { LinkedHashMap.class, HashMap.class, ArrayList.class }) {
+            hints.reflection().registerType(redisValue, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
@@ -9,9 +9,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 
+import com.fintech.loan.service.LoanChangeCaptureService;
+import com.fintech.loan.service.LoanInvalidationListener;
+
 @Configuration
 public class RedisConfig {
 
@@ -40,4 +46,24 @@ public class RedisConfig {
 
         return template;
     }
+
+    /** 미리 직렬화된 JSON 바이트 저장용 (값 변환 없이 그대로 읽고 씀) */
+    @Bean
+    public RedisTemplate<String, byte[]> jsonRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /** 상품 변경 이벤트 구독 (로컬 캐시 무효화) */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       LoanInvalidationListener invalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationListener, new ChannelTopic(LoanChangeCaptureService.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
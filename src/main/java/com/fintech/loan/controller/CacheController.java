@@ -1,19 +1,22 @@
 package com.fintech.loan.controller;
 
 import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.domain.SegmentAttribute;
 import com.fintech.loan.domain.entity.Loan;
 import com.fintech.loan.service.LoanCacheService;
 import com.fintech.loan.repository.LoanViewRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/redis")
@@ -24,15 +27,16 @@ public class CacheController {
     private final LoanViewRepository loanViewRepository;
     private final RedisTemplate<String, Object> redisTemplate; // ✅ RedisTemplate 추가
 
+    private static final String VIEWER_ID_HEADER = "X-Viewer-Id";
+
     /** 조회수 증가 (Redis + Oracle Write-Through) */
     @PostMapping("/view/{loanId}")
-    public ResponseEntity<?> incrementViewCount(@PathVariable Long loanId) {
+    public ResponseEntity<?> incrementViewCount(@PathVariable Long loanId, HttpServletRequest request) {
         // 조회수 증가 (ZSet만 업데이트)
-        loanCacheService.incrementViewCount(loanId);
+        loanCacheService.incrementViewCount(loanId, resolveViewerId(request));
         
-        // Redis ZSet에서 실시간 조회수 가져오기
-        Double redisScore = redisTemplate.opsForZSet().score("loan:loanData", loanId);
-        Long viewCount = (redisScore != null) ? redisScore.longValue() : 0L;
+        // Redis ZSet에서 실시간 조회수 가져오기 (핫키 누적분 포함)
+        long viewCount = loanCacheService.getViewCount(loanId);
 
         // 조회수만 반환 (loan 정보 X)
         return ResponseEntity.ok(Map.of("loanId", loanId, "viewCount", viewCount));
@@ -42,6 +46,23 @@ public class CacheController {
     public void testTop20() {
         loanCacheService.cacheTop20Loans();
     }
+
+    /** 세그먼트별 인기 Top N (attribute: bank / purpose / jobType) */
+    @GetMapping("/popular/segment/{attribute}/{value}")
+    public List<LoanDTO> getTopLoansBySegment(@PathVariable String attribute,
+                                              @PathVariable String value,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        return loanCacheService.getTopLoansBySegment(SegmentAttribute.fromCode(attribute), value, limit);
+    }
+
+    /** 마지막 Top 20 스냅샷 조회 (If-None-Match 일치 시 304) */
+    @GetMapping("/popular/top")
+    public List<LoanDTO> getTopSnapshot(WebRequest webRequest) {
+        if (webRequest.checkNotModified(loanCacheService.getTopSnapshotETag())) {
+            return null;
+        }
+        return loanCacheService.getTopSnapshot();
+    }
     
 //    @GetMapping("/popular/{loanId}")
 //    public LoanDTO testCacheHitOrMiss(@PathVariable Long loanId) {
@@ -50,9 +71,46 @@ public class CacheController {
 
     /** 단일 Loan 상세 조회 (Cache-Aside with TTL) */
     @GetMapping("/detail/{loanId}")	//ok
-    public LoanDTO getLoanDetail(@PathVariable Long loanId) {
-    	loanCacheService.incrementViewCount(loanId);
-    	return loanCacheService.getLoanCheckCache(loanId);
+    public ResponseEntity<?> getLoanDetail(@PathVariable Long loanId, HttpServletRequest request, WebRequest webRequest) {
+    	loanCacheService.incrementViewCount(loanId, resolveViewerId(request));
+
+    	// 저장된 ETag(GET 한 번)가 같으면 본문 로딩/직렬화 없이 304
+    	String storedETag = loanCacheService.getLoanDetailETag(loanId);
+    	if (storedETag != null && webRequest.checkNotModified(storedETag)) {
+    		return null;
+    	}
+
+    	// raw-json 모드: 미리 직렬화된 바이트 그대로 응답
+    	Object body;
+    	String eTag;
+    	if (loanCacheService.isRawJsonEnabled()) {
+    		LoanCacheService.LoanDetailJson detail = loanCacheService.getLoanDetailJson(loanId);
+    		body = detail.body();
+    		eTag = detail.eTag();
+    	} else {
+    		LoanDTO detail = loanCacheService.getLoanCheckCache(loanId);
+    		body = detail;
+    		eTag = loanCacheService.getLoanDetailETag(detail);
+    	}
+
+    	// 저장된 ETag 가 없었으면 기록 후 응답 헤더에 추가
+    	if (storedETag == null && eTag != null) {
+    		loanCacheService.rememberDetailETag(loanId, eTag);
+    		if (webRequest.checkNotModified(eTag)) {
+    			return null;
+    		}
+    	}
+    	return loanCacheService.isRawJsonEnabled()
+    			? ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body)
+    			: ResponseEntity.ok(body);
+    }
+
+    /** 여러 Loan 상세 일괄 조회 (비교 페이지용, MGET + ZMSCORE) */
+    @GetMapping("/details")
+    public List<LoanDTO> getLoanDetails(@RequestParam List<Long> ids,
+                                        @RequestParam(defaultValue = "false") boolean countView,
+                                        HttpServletRequest request) {
+        return loanCacheService.getLoanDetails(ids, countView, resolveViewerId(request));
     }
     
 
@@ -74,11 +132,19 @@ public class CacheController {
         return ResponseEntity.ok(status);
     }
     
-    /** 모든 캐시 키 조회 */
+    /** 캐싱된 상세 키 조회 (KEYS 대신 만료 인덱스 기준 → 클러스터에서도 동작) */
     @GetMapping("/keys")
     public ResponseEntity<?> getAllCacheKeys() {
-        Set<String> keys = redisTemplate.keys("loan:*");
-        return ResponseEntity.ok(Map.of("cacheKeys", keys != null ? keys : Set.of()));
+        return ResponseEntity.ok(Map.of("cacheKeys", loanCacheService.getCachedDetailKeys()));
+    }
+
+    /** 순방문자 식별자: X-Viewer-Id 헤더 우선, 없으면 IP + User-Agent */
+    private String resolveViewerId(HttpServletRequest request) {
+        String viewerId = request.getHeader(VIEWER_ID_HEADER);
+        if (viewerId != null && !viewerId.isBlank()) {
+            return viewerId;
+        }
+        return request.getRemoteAddr() + "|" + request.getHeader("User-Agent");
     }
     
 
@@ -0,0 +1,25 @@
+package com.fintech.loan.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.HotKeyService;
+
+import lombok.RequiredArgsConstructor;
+
+/** 현재 핫키 목록 (/actuator/hotkeys) */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    private final HotKeyService hotKeyService;
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        return hotKeyService.snapshot();
+    }
+}
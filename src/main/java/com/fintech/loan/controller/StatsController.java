@@ -0,0 +1,46 @@
+package com.fintech.loan.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import com.fintech.loan.domain.RollupPeriod;
+import com.fintech.loan.domain.ViewStatDTO;
+import com.fintech.loan.service.ViewRollupService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/stats")
+@ConditionalOnProperty(name = "loan.rollup.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final ViewRollupService rollupService;
+
+    /** 누적 조회수 (Oracle 합계로 초기화한 Redis 카운터) */
+    @GetMapping("/total-views")
+    public Long getTotalViews() {
+        return rollupService.getTotalViews();
+    }
+
+    /** 상품별 조회수 추이 (시간/일 단위) */
+    @GetMapping("/trend/{loanId}")
+    public List<ViewStatDTO> getTrend(@PathVariable Long loanId,
+                                      @RequestParam(defaultValue = "HOUR") RollupPeriod period,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return rollupService.getTrend(loanId, period, from, to);
+    }
+
+    /** 기간 인기 상품 Top N (limit 1 ~ 50) */
+    @GetMapping("/top")
+    public List<ViewStatDTO> getTop(@RequestParam(defaultValue = "DAY") RollupPeriod period,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return rollupService.getTop(period, at, limit);
+    }
+}
@@ -2,6 +2,7 @@ package com.fintech.loan.domain;
 
 import java.io.Serializable;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fintech.loan.domain.entity.Loan;
 
 import lombok.AllArgsConstructor;
@@ -36,6 +37,9 @@ public class LoanDTO implements Serializable {
     private int maxLimit;
     private int periodMonths;
     private Long viewCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long uniqueViewers;   // 순방문자 수 (unique-viewer 모드에서만)
     
     public LoanDTO(Loan loan, long viewCount) {
         this.id = loan.getId();
@@ -0,0 +1,13 @@
+package com.fintech.loan.domain;
+
+/** 세그먼트 순위용 상품 속성 (LoanRepository 프로젝션) */
+public interface LoanSegment {
+
+    Long getId();
+
+    String getBank();
+
+    String getPurpose();
+
+    String getJobType();
+}
@@ -0,0 +1,48 @@
+package com.fintech.loan.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** 조회수 집계 단위 */
+@Getter
+@RequiredArgsConstructor
+public enum RollupPeriod {
+
+    HOUR("H", ChronoUnit.HOURS, DateTimeFormatter.ofPattern("yyyyMMddHH")),
+    DAY("D", ChronoUnit.DAYS, DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+    private final String code;          // LOAN_VIEW_ROLLUP.PERIOD_TYPE
+    private final ChronoUnit unit;
+    private final DateTimeFormatter format;
+
+    /** time 이 속한 기간 시작 시각 */
+    public LocalDateTime startOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /** Redis 키용 기간 문자열 (예: 2025101913) */
+    public String bucketOf(LocalDateTime time) {
+        return time.format(format);
+    }
+
+    /** bucketOf 의 역변환 */
+    public LocalDateTime parseBucket(String bucket) {
+        return this == DAY
+                ? LocalDate.parse(bucket, format).atStartOfDay()
+                : LocalDateTime.parse(bucket, format);
+    }
+
+    public static RollupPeriod fromCode(String code) {
+        for (RollupPeriod period : values()) {
+            if (period.code.equals(code)) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 집계 단위: " + code);
+    }
+}
@@ -0,0 +1,32 @@
+package com.fintech.loan.domain;
+
+import java.util.function.Function;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** 세그먼트 인기 순위 기준 속성 */
+@Getter
+@RequiredArgsConstructor
+public enum SegmentAttribute {
+
+    BANK("bank", LoanSegment::getBank),
+    PURPOSE("purpose", LoanSegment::getPurpose),
+    JOB_TYPE("jobType", LoanSegment::getJobType);
+
+    private final String code;          // API 경로 / Redis 키
+    private final Function<LoanSegment, String> extractor;
+
+    public String valueOf(LoanSegment segment) {
+        return extractor.apply(segment);
+    }
+
+    public static SegmentAttribute fromCode(String code) {
+        for (SegmentAttribute attribute : values()) {
+            if (attribute.code.equals(code)) {
+                return attribute;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 세그먼트 속성: " + code);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fintech.loan.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/** 기간별 조회수 (추이 / 기간 Top N 응답) */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ViewStatDTO implements Serializable {
+
+    private Long loanId;
+    private LocalDateTime periodStart;
+    private Long viewCount;
+}
@@ -0,0 +1,41 @@
+package com.fintech.loan.domain.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/** LOAN_PRODUCTS 변경 이력 (트리거가 적재하는 outbox, 애플리케이션은 PROCESSED_AT 만 갱신) */
+@Entity
+@Table(name = "LOAN_PRODUCT_EVENTS")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanProductEvent {
+
+    public static final String INSERT = "I";
+    public static final String UPDATE = "U";
+    public static final String DELETE = "D";
+
+    @Id
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "LOAN_ID")
+    private Long loanId;
+
+    @Column(name = "EVENT_TYPE")
+    private String eventType;
+
+    @Column(name = "CREATED_AT")
+    private LocalDateTime createdAt;
+
+    @Column(name = "PROCESSED_AT")
+    private LocalDateTime processedAt;
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    @Column(name = "LAST_ERROR")
+    private String lastError;
+}
@@ -0,0 +1,39 @@
+package com.fintech.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.loan.domain.entity.LoanProductEvent;
+
+@Repository
+public interface LoanProductEventRepository extends JpaRepository<LoanProductEvent, Long> {
+
+    // 미처리 변경 이력 배치 조회 (IDX_LOAN_PRODUCT_EVENTS_PENDING)
+    List<LoanProductEvent> findByProcessedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    // 캐시 반영이 끝난 이력 처리 표시
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanProductEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    // 반영 실패 기록 (시도 횟수 증가 + 마지막 오류)
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanProductEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    // 보존 기간 지난 처리 완료 이력 정리 (반영 포기한 이력 포함)
+    @Modifying
+    @Query("DELETE FROM LoanProductEvent e WHERE e.processedAt IS NOT NULL AND e.createdAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,26 +1,47 @@
 package com.fintech.loan.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.domain.LoanSegment;
 import com.fintech.loan.domain.entity.Loan;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
-	/** Loan과 LoanView를 조인해서 인기 상품 Top N 조회 */
-	@Query(value = "SELECT * FROM ( " + "SELECT l.*, NVL(lv.view_count, 0) AS view_count " + "FROM loan_products l "
-			+ "LEFT JOIN loan_views lv ON l.id = lv.loan_id " + "ORDER BY NVL(lv.view_count, 0) DESC "
-			+ ") WHERE ROWNUM <= :limit", nativeQuery = true)
-	List<Loan> findTopLoans(@Param("limit") int limit);
+	/**
+	 * 인기 상품 Top N 조회
+	 * - loan_views (view_count DESC, loan_id) 인덱스를 앞에서부터 N 건만 읽고 상품 PK 로 조인 (FETCH FIRST N ROWS)
+	 * - 인덱스 / NOT NULL 제약: db/loan_views_rank_index.sql
+	 */
+	@Query("SELECT new com.fintech.loan.domain.LoanDTO(l.id, l.productName, v.viewCount) "
+			+ "FROM LoanView v JOIN Loan l ON l.id = v.loanId ORDER BY v.viewCount DESC, v.loanId")
+	List<LoanDTO> findTopLoans(Pageable pageable);
+
+	/** 조회 기록(loan_views 행)이 없는 상품 - Top N 이 limit 보다 적을 때 보충용 */
+	@Query("SELECT new com.fintech.loan.domain.LoanDTO(l.id, l.productName, 0L) FROM Loan l "
+			+ "WHERE NOT EXISTS (SELECT 1 FROM LoanView v WHERE v.loanId = l.id) ORDER BY l.id")
+	List<LoanDTO> findLoansWithoutViews(Pageable pageable);
 
 	@Query(value = "SELECT NVL(lv.view_count, 0) " + "FROM loan_products l "
 			+ "LEFT JOIN loan_views lv ON l.id = lv.loan_id " + "WHERE l.id = :loanId", nativeQuery = true)
 	Optional<Long> findViewCountById(@Param("loanId") Long loanId);
 
+	/** 여러 상품 DB 조회수 (존재하는 상품만, 조회 기록 없으면 0) */
+	@Query("SELECT new com.fintech.loan.domain.LoanDTO(l.id, l.productName, COALESCE(v.viewCount, 0L)) "
+			+ "FROM Loan l LEFT JOIN LoanView v ON v.loanId = l.id WHERE l.id IN :ids")
+	List<LoanDTO> findViewCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/** 세그먼트 순위용 속성만 조회 (LoanView 연관 로딩 없음) */
+	@Query("SELECT l.id AS id, l.bank AS bank, l.purpose AS purpose, l.jobType AS jobType FROM Loan l WHERE l.id IN :ids")
+	List<LoanSegment> findSegmentsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
\ No newline at end of file
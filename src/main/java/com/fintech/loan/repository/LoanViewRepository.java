@@ -15,6 +15,10 @@ public interface LoanViewRepository extends JpaRepository<LoanView, Long> {
     @Query("SELECT v.viewCount FROM LoanView v WHERE v.loanId = :loanId")
     Long getViewCount(@Param("loanId") Long loanId);
     
+    // 전체 조회수 합계 (엔티티 로딩 없이 DB 에서 집계)
+    @Query("SELECT COALESCE(SUM(v.viewCount), 0) FROM LoanView v")
+    Long sumViewCount();
+
     @Modifying
     @Query("UPDATE LoanView v SET v.viewCount = v.viewCount + 1 WHERE v.loanId = :loanId")
     void incrementViewCount(@Param("loanId") Long loanId);
@@ -0,0 +1,61 @@
+package com.fintech.loan.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.loan.domain.RollupPeriod;
+import com.fintech.loan.domain.ViewStatDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/** LOAN_VIEW_ROLLUP (flush 단위 append-only 집계 테이블, JDBC 배치 MERGE) */
+@Repository
+@RequiredArgsConstructor
+public class ViewRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 한 flush 의 상품별 조회수를 배치 MERGE (한 트랜잭션, 같은 flushId 재실행 시 이미 있는 행은 건너뜀) */
+    @Transactional
+    public void mergeAll(RollupPeriod period, LocalDateTime periodStart, String flushId, Map<Long, Long> viewCounts) {
+        List<Object[]> rows = new ArrayList<>(viewCounts.size());
+        Timestamp start = Timestamp.valueOf(periodStart);
+        viewCounts.forEach((loanId, count) -> rows.add(new Object[] { period.getCode(), start, loanId, flushId, count }));
+
+        jdbcTemplate.batchUpdate(
+                "MERGE INTO LOAN_VIEW_ROLLUP r "
+                        + "USING (SELECT ? AS PERIOD_TYPE, ? AS PERIOD_START, ? AS LOAN_ID, ? AS FLUSH_ID, ? AS VIEW_COUNT FROM DUAL) s "
+                        + "ON (r.PERIOD_TYPE = s.PERIOD_TYPE AND r.PERIOD_START = s.PERIOD_START "
+                        + "AND r.LOAN_ID = s.LOAN_ID AND r.FLUSH_ID = s.FLUSH_ID) "
+                        + "WHEN NOT MATCHED THEN INSERT (PERIOD_TYPE, PERIOD_START, LOAN_ID, FLUSH_ID, VIEW_COUNT) "
+                        + "VALUES (s.PERIOD_TYPE, s.PERIOD_START, s.LOAN_ID, s.FLUSH_ID, s.VIEW_COUNT)",
+                rows);
+    }
+
+    /** 상품별 기간 추이 (from 이상 to 미만) */
+    public List<ViewStatDTO> findTrend(Long loanId, RollupPeriod period, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT PERIOD_START, SUM(VIEW_COUNT) AS VIEW_COUNT FROM LOAN_VIEW_ROLLUP "
+                        + "WHERE LOAN_ID = ? AND PERIOD_TYPE = ? AND PERIOD_START >= ? AND PERIOD_START < ? "
+                        + "GROUP BY PERIOD_START ORDER BY PERIOD_START",
+                (rs, i) -> new ViewStatDTO(loanId, rs.getTimestamp("PERIOD_START").toLocalDateTime(), rs.getLong("VIEW_COUNT")),
+                loanId, period.getCode(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /** 기간 Top N */
+    public List<ViewStatDTO> findTop(RollupPeriod period, LocalDateTime periodStart, int limit) {
+        return jdbcTemplate.query(
+                "SELECT LOAN_ID, SUM(VIEW_COUNT) AS VIEW_COUNT FROM LOAN_VIEW_ROLLUP "
+                        + "WHERE PERIOD_TYPE = ? AND PERIOD_START = ? "
+                        + "GROUP BY LOAN_ID ORDER BY VIEW_COUNT DESC FETCH FIRST ? ROWS ONLY",
+                (rs, i) -> new ViewStatDTO(rs.getLong("LOAN_ID"), periodStart, rs.getLong("VIEW_COUNT")),
+                period.getCode(), Timestamp.valueOf(periodStart), limit);
+    }
+}
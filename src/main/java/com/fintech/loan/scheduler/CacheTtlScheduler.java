@@ -0,0 +1,21 @@
+package com.fintech.loan.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.CacheTtlPolicy;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class CacheTtlScheduler {
+
+    private final CacheTtlPolicy ttlPolicy;
+
+    /** 캐시 메모리 / 히트율 지표 갱신 (기본 30초) */
+    @Scheduled(fixedDelayString = "${loan.cache.ttl.metrics-interval-ms:30000}", initialDelayString = "${loan.cache.ttl.metrics-interval-ms:30000}")
+    public void refreshMetrics() {
+        ttlPolicy.refreshMetrics();
+    }
+}
@@ -0,0 +1,29 @@
+package com.fintech.loan.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.HotKeyService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotKeyScheduler {
+
+    private final HotKeyService hotKeyService;
+
+    /** 핫키 조회수 로컬 누적분 Redis 반영 (기본 1초) */
+    @Scheduled(fixedDelayString = "${loan.hotkey.flush-interval-ms:1000}", initialDelayString = "${loan.hotkey.flush-interval-ms:1000}")
+    public void flushBufferedIncrements() {
+        hotKeyService.flushBufferedIncrements();
+    }
+
+    /** 빈도 윈도우 교체 (기본 10초) */
+    @Scheduled(fixedRateString = "${loan.hotkey.window-ms:10000}", initialDelayString = "${loan.hotkey.window-ms:10000}")
+    public void rollWindow() {
+        hotKeyService.rollWindow();
+    }
+}
@@ -0,0 +1,37 @@
+package com.fintech.loan.scheduler;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.LoanChangeCaptureService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "loan.cdc.enabled", havingValue = "true")
+public class LoanChangeCaptureScheduler {
+
+    private final LoanChangeCaptureService changeCaptureService;
+
+    @Value("${loan.cdc.retention:7d}")
+    private Duration retention;
+
+    /** 상품 변경 이력 폴링 (기본 5초) */
+    @Scheduled(fixedDelayString = "${loan.cdc.poll-interval-ms:5000}")
+    public void pollChanges() {
+        changeCaptureService.poll();
+    }
+
+    /** 매일 새벽 4시 처리된 변경 이력 정리 */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void purgeEvents() {
+        changeCaptureService.purgeOlderThan(retention);
+    }
+}
@@ -0,0 +1,30 @@
+package com.fintech.loan.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.PopularityRankingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentRankScheduler {
+
+    private final PopularityRankingService rankingService;
+
+    /**
+     * 세그먼트 순위를 전체 순위 점수로 재구성 (기동 직후 1회 + 기본 10분마다)
+     * - 배포 전부터 전체 순위에 있던 상품이 세그먼트에는 배포 이후 증가분으로만 잡히는 것을 바로잡음
+     * - 감쇠 / DB 동기화 후 재구성과 같은 인스턴스 간 락 사용 (PopularityRankingService.rebuildSegments)
+     */
+    @Scheduled(fixedDelayString = "${loan.rank.segment-rebuild-ms:600000}",
+               initialDelayString = "${loan.rank.segment-rebuild-initial-delay-ms:10000}")
+    public void rebuildSegments() {
+        if (rankingService.rebuildSegments()) {
+            log.info("📊 세그먼트 순위 재구성 완료");
+        }
+    }
+}
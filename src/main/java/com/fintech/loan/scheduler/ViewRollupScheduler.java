@@ -0,0 +1,32 @@
+package com.fintech.loan.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.service.ViewRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "loan.rollup.enabled", havingValue = "true")
+public class ViewRollupScheduler {
+
+    private final ViewRollupService rollupService;
+
+    /** 로컬 누적분 Redis 반영 (기본 2초) */
+    @Scheduled(fixedDelayString = "${loan.rollup.buffer-flush-ms:2000}")
+    public void flushBuffer() {
+        rollupService.flushBuffer();
+    }
+
+    /** 끝난 시간/일 집계 Oracle 저장 (5분마다) */
+    @Scheduled(cron = "0 */5 * * * *")
+    public void flushToDatabase() {
+        log.info("📊 조회수 집계 Oracle 저장 시작");
+        rollupService.flushToDatabase();
+    }
+}
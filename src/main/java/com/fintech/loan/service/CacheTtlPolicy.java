@@ -0,0 +1,153 @@
+package com.fintech.loan.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * loan:{id} 상세 캐시 TTL 정책
+ * - 핫키: loan.hotkey.redis-ttl
+ * - 그 외: 최근 접근 빈도(Count-Min Sketch 추정치 / 핫키 임계치)와 인기 순위(마지막 Top N) 중 큰 비율로
+ *   min ~ max 사이 TTL 결정 → 한 번 보고 마는 상품은 min 근처, 자주 보거나 상위 순위면 max 근처
+ * - HIT 시 남은 TTL 이 목표의 extendBelow 미만일 때만 EXPIRE (매 HIT 마다 값 재기록 안 함)
+ */
+@Service
+@Slf4j
+public class CacheTtlPolicy {
+
+    private final HotKeyService hotKeyService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final double extendBelow;
+
+    private static final String USED_MEMORY = "used_memory";
+
+    private volatile Map<Long, Integer> ranks = Collections.emptyMap();   // loanId → 순위 (0 부터)
+    private final DistributionSummary assignedTtl;
+    private final AtomicLong detailKeys = new AtomicLong();
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public CacheTtlPolicy(HotKeyService hotKeyService,
+                          RedisTemplate<String, Object> redisTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${loan.cache.ttl.min:20s}") Duration minTtl,
+                          @Value("${loan.cache.ttl.max:2m}") Duration maxTtl,
+                          @Value("${loan.cache.ttl.extend-below:0.25}") double extendBelow) {
+        if (minTtl.isNegative() || minTtl.isZero() || minTtl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("loan.cache.ttl.min 은 0보다 크고 max 이하여야 합니다: " + minTtl + " / " + maxTtl);
+        }
+        if (extendBelow <= 0 || extendBelow >= 1) {
+            throw new IllegalArgumentException("loan.cache.ttl.extend-below 는 0 과 1 사이여야 합니다: " + extendBelow);
+        }
+        this.hotKeyService = hotKeyService;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.extendBelow = extendBelow;
+
+        this.assignedTtl = DistributionSummary.builder("loan_cache_ttl_seconds")
+                .baseUnit("seconds")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("loan_cache_hit_ratio", this, CacheTtlPolicy::hitRatio).register(meterRegistry);
+        Gauge.builder("loan_cache_detail_keys", detailKeys, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("loan_redis_used_memory_bytes", usedMemory, AtomicLong::get).register(meterRegistry);
+    }
+
+    /** loanId 의 목표 TTL (계산만, 지표 기록은 실제로 적용할 때 recordApplied 로) */
+    public Duration ttlFor(Long loanId) {
+        Duration ttl;
+        if (hotKeyService.isHot(loanId)) {
+            ttl = hotKeyService.getRedisTtl();
+        } else {
+            double rateFactor = Math.min(1.0, (double) hotKeyService.estimate(loanId) / hotKeyService.getThreshold());
+            Map<Long, Integer> current = ranks;
+            Integer rank = current.get(loanId);
+            double rankFactor = rank != null ? 1.0 - (double) rank / current.size() : 0.0;
+
+            long range = maxTtl.toMillis() - minTtl.toMillis();
+            ttl = Duration.ofMillis(minTtl.toMillis() + Math.round(range * Math.max(rateFactor, rankFactor)));
+        }
+        return ttl;
+    }
+
+    /** SET / EXPIRE 로 실제 부여한 TTL 기록 (HIT 시 남은 TTL 확인만 한 경우는 제외) */
+    public void recordApplied(Duration ttl) {
+        assignedTtl.record(ttl.toSeconds());
+    }
+
+    /**
+     * HIT 시 TTL 연장 여부
+     * @param remainingMillis PTTL 결과 (-1: 만료 없음 → 연장, -2/null: 키 없음 → 연장 안 함)
+     */
+    public boolean shouldExtend(Long remainingMillis, Duration target) {
+        if (remainingMillis == null || remainingMillis == -2) {
+            return false;
+        }
+        boolean extend = remainingMillis < 0 || remainingMillis < target.toMillis() * extendBelow;
+        meterRegistry.counter(extend ? "loan_cache_ttl_extended" : "loan_cache_ttl_extend_skipped").increment();
+        return extend;
+    }
+
+    /** 인기 순위 반영 (Top N 캐싱 시 호출) */
+    public void updateRanks(List<Long> topLoanIds) {
+        Map<Long, Integer> updated = new HashMap<>();
+        for (int i = 0; i < topLoanIds.size(); i++) {
+            updated.put(topLoanIds.get(i), i);
+        }
+        ranks = updated;
+    }
+
+    /**
+     * 메모리 대비 히트율 지표 갱신 (상세 캐시 키 수, Redis used_memory)
+     * - 키 수: 만료 인덱스에서 만료 시각이 지난 항목을 지운 뒤 ZCARD → TTL 로 사라진 키는 세지 않음
+     * - 메모리: 클러스터는 노드별 "host:port.used_memory" 로 오므로 모두 합산
+     */
+    public void refreshMetrics() {
+        redisTemplate.opsForZSet().removeRangeByScore(LoanCacheService.DETAIL_INDEX_KEY,
+                Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+        Long size = redisTemplate.opsForZSet().zCard(LoanCacheService.DETAIL_INDEX_KEY);
+        detailKeys.set(size != null ? size : 0L);
+
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        if (info != null) {
+            usedMemory.set(sumUsedMemory(info));
+        }
+        log.debug("📏 캐시 지표: detailKeys={}, usedMemory={}, hitRatio={}", detailKeys.get(), usedMemory.get(), hitRatio());
+    }
+
+    /** used_memory (단일) 또는 노드별 *.used_memory (클러스터) 합계 */
+    static long sumUsedMemory(Properties info) {
+        long total = 0;
+        for (String name : info.stringPropertyNames()) {
+            if (name.equals(USED_MEMORY) || name.endsWith("." + USED_MEMORY)) {
+                total += Long.parseLong(info.getProperty(name).trim());
+            }
+        }
+        return total;
+    }
+
+    private double hitRatio() {
+        double hit = meterRegistry.counter("loan_cache_hit").count();
+        double miss = meterRegistry.counter("loan_cache_miss").count();
+        return hit + miss > 0 ? hit / (hit + miss) : 0.0;
+    }
+}
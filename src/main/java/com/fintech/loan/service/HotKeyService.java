@@ -0,0 +1,274 @@
+package com.fintech.loan.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fintech.loan.cache.CountMinSketch;
+import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.repository.LoanRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 핫키 감지 + 핫키 전용 처리
+ * - 상세 조회 / 조회수 증가를 Count-Min Sketch 로 집계, 임계치 넘으면 핫키 등록 (최대 maxHotKeys 개)
+ * - 핫키는 로컬 캐시, 긴 Redis TTL, 조회수 로컬 배치 증가(주기적으로 ZINCRBY 파이프라인 flush) 적용
+ * - 핫키 점수도 로컬에 보관 (승격 시 / flush 결과로 갱신) → 핫키 요청은 샤드에 ZSCORE 를 보내지 않음
+ * - 윈도우마다 sketch 절반 감쇠, 빈도가 떨어진 키는 핫키 해제
+ */
+@Service
+@Slf4j
+public class HotKeyService {
+
+    private final PopularityRankingService rankingService;
+    private final LoanRepository loanRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final CountMinSketch sketch;
+    private final long threshold;
+    private final int maxHotKeys;
+    private final Duration localTtl;
+    private final Duration redisTtl;
+
+    private final Set<Long> hotKeys = ConcurrentHashMap.newKeySet();
+    private final Map<Long, LocalEntry> localCache = new ConcurrentHashMap<>();     // loanId → 캐시 Map
+    private final Map<Long, LongAdder> pendingIncrements = new ConcurrentHashMap<>(); // loanId → flush 대기 조회수
+    private final Map<Long, Double> localScores = new ConcurrentHashMap<>();       // 핫키 loanId → 마지막으로 확인한 ZSet 점수
+    private final MultiGauge hotKeyEstimates;
+
+    private record LocalEntry(Map<String, Object> loanCache, long expiresAt) {}
+
+    public HotKeyService(PopularityRankingService rankingService,
+                         LoanRepository loanRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${loan.hotkey.threshold:200}") long threshold,
+                         @Value("${loan.hotkey.max-keys:20}") int maxHotKeys,
+                         @Value("${loan.hotkey.sketch-depth:4}") int sketchDepth,
+                         @Value("${loan.hotkey.sketch-width:2048}") int sketchWidth,
+                         @Value("${loan.hotkey.local-ttl:5s}") Duration localTtl,
+                         @Value("${loan.hotkey.redis-ttl:10m}") Duration redisTtl) {
+        this.rankingService = rankingService;
+        this.loanRepository = loanRepository;
+        this.meterRegistry = meterRegistry;
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        this.threshold = threshold;
+        this.maxHotKeys = maxHotKeys;
+        this.localTtl = localTtl;
+        this.redisTtl = redisTtl;
+
+        Gauge.builder("loan_hot_keys", hotKeys, Set::size).register(meterRegistry);
+        this.hotKeyEstimates = MultiGauge.builder("loan_hot_key_estimate").register(meterRegistry);
+    }
+
+    /** 접근 1회 기록, 핫키 여부 반환 */
+    public boolean record(Long loanId) {
+        long estimate = sketch.add(loanId);
+        if (estimate >= threshold && !hotKeys.contains(loanId)) {
+            promote(loanId, estimate);
+        }
+        return hotKeys.contains(loanId);
+    }
+
+    public boolean isHot(Long loanId) {
+        return hotKeys.contains(loanId);
+    }
+
+    /** 현재 윈도우 추정 접근 빈도 (기록 없이 조회만) */
+    public long estimate(Long loanId) {
+        return sketch.estimate(loanId);
+    }
+
+    /** 핫키 임계치 */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /** 핫키용 Redis TTL */
+    public Duration getRedisTtl() {
+        return redisTtl;
+    }
+
+    /** 로컬 캐시 조회 (만료 시 null) */
+    public Map<String, Object> getLocal(Long loanId) {
+        LocalEntry entry = localCache.get(loanId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            localCache.remove(loanId, entry);
+            return null;
+        }
+        meterRegistry.counter("loan_hot_key_local_hit").increment();
+        return entry.loanCache();
+    }
+
+    /** 핫키일 때만 로컬 캐시 적재 */
+    public void putLocal(Long loanId, Map<String, Object> loanCache) {
+        if (isHot(loanId)) {
+            localCache.put(loanId, new LocalEntry(loanCache, System.currentTimeMillis() + localTtl.toMillis()));
+        }
+    }
+
+    /** 로컬 캐시 + 로컬 점수 제거 (상품 변경/삭제 시) → 다음 요청은 ZSCORE 로 존재 확인 */
+    public void evictLocal(Long loanId) {
+        localCache.remove(loanId);
+        localScores.remove(loanId);
+    }
+
+    /** 핫키의 로컬 점수 (flush 대기분 제외, 핫키가 아니거나 모르면 null) */
+    public Double localScore(Long loanId) {
+        return isHot(loanId) ? localScores.get(loanId) : null;
+    }
+
+    /** ZSet 에서 확인한 핫키 점수 보관 (핫키가 아니면 무시) */
+    public void rememberScore(Long loanId, double score) {
+        if (isHot(loanId)) {
+            localScores.put(loanId, score);
+        }
+    }
+
+    /** 핫키 조회수 로컬 누적 (flush 전까지 Redis 쓰기 없음) */
+    public void bufferIncrement(Long loanId) {
+        pendingIncrements.computeIfAbsent(loanId, id -> new LongAdder()).increment();
+        meterRegistry.counter("loan_hot_key_buffered_increments").increment();
+    }
+
+    /** 아직 flush 되지 않은 조회수 */
+    public long pendingIncrement(Long loanId) {
+        LongAdder adder = pendingIncrements.get(loanId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * 누적된 조회수를 파이프라인 한 번으로 반영
+     * - ZSet 에 있는 상품은 ZINCRBY
+     * - 누적 사이 ZSet 에서 빠진 상품(감쇠 / 삭제 이벤트)은 DB 조회수 + 누적분으로 다시 시드
+     * - DB 에도 없는 상품의 누적분은 버림
+     */
+    public void flushBufferedIncrements() {
+        Map<Long, Double> deltas = new HashMap<>();
+        pendingIncrements.forEach((loanId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(loanId, (double) delta);
+            }
+        });
+        pendingIncrements.entrySet().removeIf(e -> !isHot(e.getKey()) && e.getValue().sum() == 0);
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(deltas.keySet());
+        List<Double> scores = rankingService.scores(ids);
+        Map<Long, Double> increments = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (scores.get(i) != null) {
+                increments.put(ids.get(i), deltas.get(ids.get(i)));
+            } else {
+                missingIds.add(ids.get(i));
+            }
+        }
+
+        Map<Long, Double> seeds = new HashMap<>();
+        if (!missingIds.isEmpty()) {
+            for (LoanDTO row : loanRepository.findViewCountsByIdIn(missingIds)) {
+                seeds.put(row.getId(), row.getViewCount() + deltas.get(row.getId()));
+            }
+        }
+
+        rankingService.incrementAll(increments, seeds).forEach(this::rememberScore);
+        log.debug("🔥 핫키 조회수 flush: increments={}, seeds={}", increments, seeds);
+    }
+
+    /** 종료(스케일 인) 시 flush 대기 조회수 반영 */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flushBufferedIncrements();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 종료 시 핫키 조회수 flush 실패", e);
+        }
+    }
+
+    /**
+     * 윈도우 교체: sketch 절반 감쇠 후 빈도가 임계치 절반 아래로 떨어진 핫키 해제
+     */
+    public void rollWindow() {
+        sketch.halve();
+
+        List<Long> cooled = hotKeys.stream()
+                .filter(loanId -> sketch.estimate(loanId) < threshold / 2)
+                .collect(Collectors.toList());
+        for (Long loanId : cooled) {
+            hotKeys.remove(loanId);
+            localCache.remove(loanId);
+            localScores.remove(loanId);
+            log.info("🧊 핫키 해제: loanId={}", loanId);
+        }
+
+        hotKeyEstimates.register(hotKeys.stream()
+                .map(loanId -> MultiGauge.Row.of(Tags.of("loanId", loanId.toString()), sketch.estimate(loanId)))
+                .collect(Collectors.toList()), true);
+    }
+
+    /** 현재 핫키 목록 (추정 빈도 내림차순, actuator 노출용) */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        hotKeys.stream()
+                .sorted(Comparator.comparingLong(sketch::estimate).reversed())
+                .forEach(loanId -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("loanId", loanId);
+                    row.put("estimate", sketch.estimate(loanId));
+                    row.put("pendingIncrements", pendingIncrement(loanId));
+                    row.put("localCached", localCache.containsKey(loanId));
+                    keys.add(row);
+                });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threshold", threshold);
+        result.put("maxHotKeys", maxHotKeys);
+        result.put("hotKeys", keys);
+        return result;
+    }
+
+    /** 핫키 등록, 최대 개수 초과 시 추정 빈도가 가장 낮은 키 제거 */
+    private synchronized void promote(Long loanId, long estimate) {
+        if (hotKeys.contains(loanId)) {
+            return;
+        }
+        if (hotKeys.size() >= maxHotKeys) {
+            Long coldest = hotKeys.stream()
+                    .min(Comparator.comparingLong(sketch::estimate))
+                    .orElse(null);
+            if (coldest == null || sketch.estimate(coldest) >= estimate) {
+                return;
+            }
+            hotKeys.remove(coldest);
+            localCache.remove(coldest);
+            localScores.remove(coldest);
+        }
+        hotKeys.add(loanId);
+        log.info("🔥 핫키 감지: loanId={}, estimate={}", loanId, estimate);
+    }
+}
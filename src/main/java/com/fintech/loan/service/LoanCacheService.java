@@ -1,25 +1,41 @@
 package com.fintech.loan.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.domain.SegmentAttribute;
 import com.fintech.loan.domain.entity.Loan;
+import com.fintech.loan.domain.entity.LoanView;
 import com.fintech.loan.repository.LoanRepository;
 import com.fintech.loan.repository.LoanViewRepository;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,126 +48,229 @@ public class LoanCacheService {
     private final LoanViewRepository loanViewRepository;
     private final RedisTemplate<String, Object> redisTemplate;
     private final MeterRegistry meterRegistry; // ✅ Prometheus 지표 수집용
+    private final HotKeyService hotKeyService;
+    private final PopularityRankingService rankingService;
+    private final UniqueViewerService uniqueViewerService;
+    private final ViewRollupService rollupService;
+    private final RedisTemplate<String, byte[]> jsonRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheTtlPolicy ttlPolicy;
 
     private static final String LOAN_KEY_PREFIX = "loan:";
-    private static final String DATA_KEY  = "loan:loanData";
+    static final String DETAIL_INDEX_KEY = "loan:detail:expiry";          // 캐싱된 loanId → 만료 시각(ms) ZSet (KEYS 대체)
+    private static final String JSON_KEY_SUFFIX = ":json";                // loan:{id}:json (미리 직렬화된 정적 정보)
+    private static final String ETAG_KEY_SUFFIX = ":v";                   // loan:{id}:v (정적 정보 해시 ETag, 캐시와 같은 TTL)
+    private static final String TOP_SNAPSHOT_KEY = "loan:top:snapshot";   // 마지막 Top 20 loanId 목록
+    private static final String TOP_GENERATION_KEY = "loan:top:generation"; // Top 20 스냅샷 세대 (ETag)
+    private static final String TOP_CONTENT_KEY = "loan:top:content";     // Top 20 스냅샷 정적 정보 해시 (세대 증가 판단용)
+    private static final int MAX_BATCH_SIZE = 50;   // 비교 페이지 최대 상품 수
+
+    // /redis/detail 응답을 미리 직렬화된 JSON 바이트로 바로 내려보낼지 여부
+    @Getter
+    @Value("${loan.cache.raw-json.enabled:false}")
+    private boolean rawJsonEnabled;
+
+    /** raw-json 상세 응답 본문 + ETag (DB 에서 렌더링한 경우만, 캐시 HIT 면 null) */
+    public record LoanDetailJson(byte[] body, String eTag) {}
 
     @Transactional
     public void incrementViewCount(Long loanId) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        Double currentScore = zSetOps.score(DATA_KEY, loanId);
+        incrementViewCount(loanId, null);
+    }
 
+    /**
+     * 조회수 증가 (unique-viewer 모드면 같은 viewer 의 중복 조회는 ZSet 쓰기 생략)
+     * - 요청당 핫키 sketch 기록은 여기서 한 번만 (상세 조회 경로는 isHot 만 확인)
+     * - ZSet 에 없으면 DB 존재 확인 후 기록 → 없는 loanId 는 핫키가 되지 않음
+     * - 이미 점수를 아는 핫키는 ZSCORE 없이 로컬 누적만 (승격 시 ZSet 에 있었고, 빠졌으면 flush 가 다시 시드)
+     */
+    @Transactional
+    public void incrementViewCount(Long loanId, String viewerId) {
+        if (hotKeyService.localScore(loanId) != null) {
+            hotKeyService.record(loanId);
+            if (uniqueViewerService.recordView(loanId, viewerId)) {
+                hotKeyService.bufferIncrement(loanId);
+                rollupService.record(loanId);
+            }
+            return;
+        }
+
+        Double currentScore = rankingService.score(loanId);
+        Long dbViewCount = null;
         if (currentScore == null) {
-            Long dbViewCount = loanRepository.findViewCountById(loanId)
+            dbViewCount = loanRepository.findViewCountById(loanId)
                     .orElseThrow(() -> new IllegalArgumentException("Loan not found: " + loanId));
-            zSetOps.add(DATA_KEY, loanId, dbViewCount + 1.0);
+        }
+        boolean hot = hotKeyService.record(loanId);
+
+        if (!uniqueViewerService.recordView(loanId, viewerId)) {
+            return;
+        }
+
+        if (currentScore == null) {
+            // ZSet 에 없으면 핫키여도 DB 조회수로 시드
+            rankingService.add(loanId, dbViewCount + 1.0);
+            hotKeyService.rememberScore(loanId, dbViewCount + 1.0);
+        } else if (hot) {
+            // 🔥 핫키는 로컬 누적 후 주기적으로 일괄 반영
+            hotKeyService.rememberScore(loanId, currentScore);
+            hotKeyService.bufferIncrement(loanId);
         } else {
-            zSetOps.incrementScore(DATA_KEY, loanId, 1.0);
+            rankingService.increment(loanId, 1.0);
         }
+        rollupService.record(loanId);
     }
  
+    /** 실시간 Top 20 (샤드별 Top 20 병합 후 MGET 으로 상세 조회) */
     public List<LoanDTO> getTop20Loans() {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        ValueOperations<String, Object> valueOps = redisTemplate.opsForValue();
-
-        Set<Object> topLoanIds = zSetOps.reverseRange(DATA_KEY, 0, 19);
-        if (topLoanIds == null || topLoanIds.isEmpty()) {
+        List<TypedTuple<Object>> top = rankingService.topN(20);
+        if (top.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return topLoanIds.stream()
-                .map(id -> {
-                    Long loanId = Long.valueOf(id.toString());
-                    Map<String, Object> loanCache = (Map<String, Object>) valueOps.get(LOAN_KEY_PREFIX + loanId);
-                    if (loanCache == null) {
-                        Loan loan = loanRepository.findById(loanId).orElse(null);
-                        if (loan != null) {
-                            Map<String, Object> newCache = Map.of(
-                                    "id", loan.getId(),
-                                    "productName", loan.getProductName(),
-                                    "bank", loan.getBank(),
-                                    "jobType", loan.getJobType(),
-                                    "purpose", loan.getPurpose(),
-                                    "rateType", loan.getRateType(),
-                                    "interestRate", loan.getInterestRate(),
-                                    "maxLimit", loan.getMaxLimit(),
-                                    "periodMonths", loan.getPeriodMonths()
-                            );
-                            valueOps.set(LOAN_KEY_PREFIX + loanId, newCache);
-                            loanCache = newCache;
-                        }
-                    }
+        List<Long> topLoanIds = new ArrayList<>();
+        Map<Long, Double> scoreById = new HashMap<>();
+        for (TypedTuple<Object> tuple : top) {
+            Long loanId = Long.valueOf(tuple.getValue().toString());
+            topLoanIds.add(loanId);
+            scoreById.put(loanId, tuple.getScore());
+        }
 
-                    if (loanCache != null) {
-                        Double score = zSetOps.score(DATA_KEY, loanId);
-                        long viewCount = (score != null) ? score.longValue() : 0L;
-
-                        return new LoanDTO(
-                                Long.valueOf(loanCache.get("id").toString()),
-                                (String) loanCache.get("productName"),
-                                (String) loanCache.get("bank"),
-                                (String) loanCache.get("jobType"),
-                                (String) loanCache.get("purpose"),
-                                (String) loanCache.get("rateType"),
-                                (String) loanCache.get("interestRate"),
-                                (Integer) loanCache.get("maxLimit"),
-                                (Integer) loanCache.get("periodMonths"),
-                                viewCount
-                        );
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
+        Map<Long, Map<String, Object>> loanCaches = loadLoanCaches(topLoanIds);
+        List<LoanDTO> result = topLoanIds.stream()
+                .filter(loanCaches::containsKey)
+                .map(loanId -> toLoanDTO(loanCaches.get(loanId), scoreById.get(loanId).longValue()))
                 .collect(Collectors.toList());
+        return withUniqueViewers(result);
     }
 
     public void cacheTop20Loans() {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        ValueOperations<String, Object> valueOps = redisTemplate.opsForValue();
-
-        Set<Object> topLoanIds = zSetOps.reverseRange(DATA_KEY, 0, 19);
-        if (topLoanIds == null || topLoanIds.isEmpty()) {
+        List<Long> topLoanIds = rankingService.topIds(20);
+        if (topLoanIds.isEmpty()) {
             log.info("⚠️ ZSet 데이터 없음 - 캐싱 작업 종료");
             return;
         }
 
-        Set<String> existingCacheKeys = redisTemplate.keys("loan:*");
-        if (existingCacheKeys != null && !existingCacheKeys.isEmpty()) {
-            existingCacheKeys.remove(DATA_KEY);
-            redisTemplate.delete(existingCacheKeys);
+        // 기존 캐시 정리 (KEYS 대신 만료 인덱스 사용 → 클러스터에서도 동작)
+        Set<Object> cachedIds = liveCachedIds();
+        if (cachedIds != null && !cachedIds.isEmpty()) {
+            // 핫키는 Top 20 밖이어도 긴 TTL(loan.hotkey.redis-ttl)로 유지
+            List<Long> staleIds = cachedIds.stream()
+                    .map(id -> Long.valueOf(id.toString()))
+                    .filter(id -> !topLoanIds.contains(id) && !hotKeyService.isHot(id))
+                    .collect(Collectors.toList());
+            if (!staleIds.isEmpty()) {
+                redisTemplate.delete(cacheKeysOf(staleIds));
+                redisTemplate.opsForZSet().remove(DETAIL_INDEX_KEY, staleIds.toArray());
+            }
         }
 
-        for (Object id : topLoanIds) {
-            Long loanId = Long.valueOf(id.toString());
-            Loan loan = loanRepository.findById(loanId).orElse(null);
-            if (loan == null) continue;
+        // 순위 기반 TTL 에 반영
+        ttlPolicy.updateRanks(topLoanIds);
+
+        List<Loan> loans = loanRepository.findAllById(topLoanIds);
 
-            Map<String, Object> loanCache = Map.of(
-                    "id", loan.getId(),
-                    "productName", loan.getProductName(),
-                    "bank", loan.getBank(),
-                    "jobType", loan.getJobType(),
-                    "purpose", loan.getPurpose(),
-                    "rateType", loan.getRateType(),
-                    "interestRate", loan.getInterestRate(),
-                    "maxLimit", loan.getMaxLimit(),
-                    "periodMonths", loan.getPeriodMonths()
-            );
+        // 순위 또는 Oracle 에서 다시 읽은 정적 정보가 바뀐 경우에만 스냅샷 교체 + 세대 증가 (ETag 변경)
+        List<Object> previous = redisTemplate.opsForList().range(TOP_SNAPSHOT_KEY, 0, -1);
+        String contentHash = Integer.toHexString(loans.stream()
+                .sorted(Comparator.comparing(Loan::getId))
+                .map(this::toLoanCache)
+                .collect(Collectors.toList())
+                .hashCode());
+        boolean changed = previous == null
+                || !topLoanIds.equals(previous.stream().map(id -> Long.valueOf(id.toString())).collect(Collectors.toList()))
+                || !contentHash.equals(redisTemplate.opsForValue().get(TOP_CONTENT_KEY));
 
-//            valueOps.set(LOAN_KEY_PREFIX + loanId, loanCache);
-//            log.info("✅ 캐싱 완료 loanId={}", loanId);
-             // TTL 설정 (분)
-             valueOps.set(LOAN_KEY_PREFIX + loanId, loanCache, java.time.Duration.ofMinutes(2));
-             log.info("✅ 캐싱 완료 loanId={} (TTL: 2분)", loanId);
+        Map<Long, Duration> ttls = new HashMap<>();
+        loans.forEach(loan -> ttls.put(loan.getId(), ttlPolicy.ttlFor(loan.getId())));
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                // TTL 설정 (순위 / 접근 빈도 기반)
+                loans.forEach(loan -> writeDetailCache(ops, loan.getId(), toLoanCache(loan), ttls.get(loan.getId())));
+                if (changed) {
+                    ops.delete(TOP_SNAPSHOT_KEY);
+                    ops.opsForList().rightPushAll(TOP_SNAPSHOT_KEY, topLoanIds.toArray());
+                    ops.opsForValue().set(TOP_CONTENT_KEY, contentHash);
+                    ops.opsForValue().increment(TOP_GENERATION_KEY);
+                }
+                return null;
+            }
+        });
+        loans.forEach(loan -> log.info("✅ 캐싱 완료 loanId={} (TTL: {}초)", loan.getId(), ttls.get(loan.getId()).toSeconds()));
+    }
+
+    /** 세그먼트(bank / purpose / jobType) 인기 Top N (세그먼트 ZSet ZREVRANGE + MGET) */
+    public List<LoanDTO> getTopLoansBySegment(SegmentAttribute attribute, String value, int limit) {
+        if (limit <= 0 || limit > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("limit 은 1 ~ " + MAX_BATCH_SIZE + " 사이여야 합니다: " + limit);
         }
+        return getLoanDetails(rankingService.topIdsInSegment(attribute, value, limit), false);
+    }
+
+    /** 마지막 Top 20 스냅샷 (스냅샷 순서 유지, 조회수는 실시간) */
+    public List<LoanDTO> getTopSnapshot() {
+        List<Object> snapshot = redisTemplate.opsForList().range(TOP_SNAPSHOT_KEY, 0, -1);
+        if (snapshot == null || snapshot.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = snapshot.stream()
+                .map(id -> Long.valueOf(id.toString()))
+                .collect(Collectors.toList());
+        return getLoanDetails(ids, false);
+    }
+
+    /**
+     * 저장된 상세 조회 ETag (GET loan:{id}:v 한 번, 본문 로딩 없음)
+     * - 캐시 적재 시 정적 정보 해시로 기록 → CDC 없이 Oracle 에서 다시 읽은 변경도 반영
+     * - 없으면 null (호출 측은 본문을 읽어 ETag 를 계산 후 rememberDetailETag)
+     */
+    public String getLoanDetailETag(Long loanId) {
+        Object eTag = redisTemplate.opsForValue().get(LOAN_KEY_PREFIX + loanId + ETAG_KEY_SUFFIX);
+        return eTag != null ? eTag.toString() : null;
+    }
+
+    /** 응답 본문 기준 ETag (실시간 viewCount / uniqueViewers 제외) */
+    public String getLoanDetailETag(LoanDTO detail) {
+        return detailETag(detail.getId(), detail.getProductName(), detail.getBank(), detail.getJobType(), detail.getPurpose(),
+                detail.getRateType(), detail.getInterestRate(), detail.getMaxLimit(), detail.getPeriodMonths());
+    }
+
+    /** 계산한 ETag 기록 (loan:{id}:v 유실/만료 시 다음 조건부 요청부터 GET 한 번으로 304) */
+    public void rememberDetailETag(Long loanId, String eTag) {
+        redisTemplate.opsForValue().set(LOAN_KEY_PREFIX + loanId + ETAG_KEY_SUFFIX, eTag, ttlPolicy.ttlFor(loanId));
+    }
+
+    /** Top 20 스냅샷 ETag (약한 검증자, GET 한 번) */
+    public String getTopSnapshotETag() {
+        Object generation = redisTemplate.opsForValue().get(TOP_GENERATION_KEY);
+        return "W/\"top-" + (generation != null ? generation : 0) + "\"";
     }
 
     @Cacheable(value = "loan", key = "#loanId", condition = "false")
     public LoanDTO getLoanCheckCache(Long loanId) {
-        ValueOperations<String, Object> valueOps = redisTemplate.opsForValue();
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        boolean hot = hotKeyService.isHot(loanId);   // 접근 기록은 incrementViewCount 에서
 
-        Map<String, Object> loanCache = (Map<String, Object>) valueOps.get(LOAN_KEY_PREFIX + loanId);
+        // 🔥 핫키 로컬 캐시 HIT → Redis 조회/TTL 갱신 생략
+        Map<String, Object> loanCache = hot ? hotKeyService.getLocal(loanId) : null;
+        if (loanCache != null) {
+            meterRegistry.counter("loan_cache_hit").increment();
+            return withUniqueViewers(toLoanDTO(loanCache, getViewCount(loanId)));
+        }
+
+        // GET + PTTL 한 번에 (TTL 연장 필요 여부 판단용)
+        String cacheKey = LOAN_KEY_PREFIX + loanId;
+        List<Object> cached = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForValue().get(cacheKey);
+                ops.getExpire(cacheKey, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+        loanCache = (Map<String, Object>) cached.get(0);
 
         if (loanCache == null) {
             // ❌ Cache MISS
@@ -161,45 +280,427 @@ public class LoanCacheService {
             Loan loan = loanRepository.findById(loanId)
                     .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
 
-            Double score = zSetOps.score(DATA_KEY, loanId);
-            long viewCount = (score != null) ? score.longValue() : 0L;
+            // 핫키는 MISS 시에도 바로 캐싱 (DB 로 몰리는 요청 차단)
+            if (hot) {
+                Map<String, Object> newCache = toLoanCache(loan);
+                writeDetailCache(redisTemplate, loanId, newCache, ttlPolicy.ttlFor(loanId));
+                hotKeyService.putLocal(loanId, newCache);
+            }
 
-            return new LoanDTO(
-                    loan.getId(),
-                    loan.getProductName(),
-                    loan.getBank(),
-                    loan.getJobType(),
-                    loan.getPurpose(),
-                    loan.getRateType(),
-                    loan.getInterestRate(),
-                    loan.getMaxLimit(),
-                    loan.getPeriodMonths(),
-                    viewCount
-            );
+            return withUniqueViewers(new LoanDTO(loan, getViewCount(loanId)));
         }
 
         // ✅ Cache HIT
         log.info("✅ Cache HIT: loanId={}", loanId);
         meterRegistry.counter("loan_cache_hit").increment(); // ✅ HIT 카운터
         
-        // TTL 재갱신 (분)
-        valueOps.set(LOAN_KEY_PREFIX + loanId, loanCache, java.time.Duration.ofMinutes(2));
-        log.info("🔄 TTL 재갱신 완료: loanId={} (TTL: 2분)", loanId);
-
-        Double score = zSetOps.score(DATA_KEY, loanId);
-        long viewCount = (score != null) ? score.longValue() : 0L;
-
-        return new LoanDTO(
-                Long.valueOf(loanCache.get("id").toString()),
-                (String) loanCache.get("productName"),
-                (String) loanCache.get("bank"),
-                (String) loanCache.get("jobType"),
-                (String) loanCache.get("purpose"),
-                (String) loanCache.get("rateType"),
-                (String) loanCache.get("interestRate"),
-                (Integer) loanCache.get("maxLimit"),
-                (Integer) loanCache.get("periodMonths"),
-                viewCount
-        );
+        // 남은 TTL 이 짧을 때만 연장 (값 재기록 없이 EXPIRE)
+        Duration ttl = ttlPolicy.ttlFor(loanId);
+        if (ttlPolicy.shouldExtend((Long) cached.get(1), ttl)) {
+            redisTemplate.expire(cacheKey, ttl);
+            redisTemplate.expire(cacheKey + ETAG_KEY_SUFFIX, ttl);
+            redisTemplate.opsForZSet().add(DETAIL_INDEX_KEY, loanId, expiresAt(ttl));
+            ttlPolicy.recordApplied(ttl);
+            log.info("🔄 TTL 연장: loanId={} (TTL: {}초)", loanId, ttl.toSeconds());
+        }
+
+        if (hot) {
+            hotKeyService.putLocal(loanId, loanCache);
+        }
+
+        return withUniqueViewers(toLoanDTO(loanCache, getViewCount(loanId)));
+    }
+
+    /**
+     * 단일 Loan 상세 조회 - 미리 직렬화된 JSON 바이트 (raw-json 모드)
+     * - 정적 정보는 loan:{id}:json 에 닫는 괄호를 뺀 UTF-8 JSON 으로 저장
+     * - 응답은 저장된 바이트 뒤에 viewCount(, uniqueViewers) 만 이어 붙여 생성 → 역직렬화/DTO 변환 없음
+     * - ETag 는 DB 에서 렌더링한 경우에만 계산 (HIT 면 loan:{id}:v 사용)
+     */
+    public LoanDetailJson getLoanDetailJson(Long loanId) {
+        String jsonKey = LOAN_KEY_PREFIX + loanId + JSON_KEY_SUFFIX;
+
+        List<Object> cached = jsonRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                ops.opsForValue().get(jsonKey);
+                ops.getExpire(jsonKey, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+
+        byte[] staticJson = (byte[]) cached.get(0);
+        String eTag = null;
+        if (staticJson == null) {
+            meterRegistry.counter("loan_cache_miss").increment();
+            log.info("❌ Cache MISS (json) → DB 조회: loanId={}", loanId);
+
+            Loan loan = loanRepository.findById(loanId)
+                    .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
+            staticJson = renderStaticJson(loan);
+            eTag = detailETag(toLoanCache(loan));
+            Duration ttl = ttlPolicy.ttlFor(loanId);
+            jsonRedisTemplate.opsForValue().set(jsonKey, staticJson, ttl);
+            ttlPolicy.recordApplied(ttl);
+            redisTemplate.opsForZSet().add(DETAIL_INDEX_KEY, loanId, expiresAt(ttl));
+        } else {
+            meterRegistry.counter("loan_cache_hit").increment();
+            Duration ttl = ttlPolicy.ttlFor(loanId);
+            if (ttlPolicy.shouldExtend((Long) cached.get(1), ttl)) {
+                jsonRedisTemplate.expire(jsonKey, ttl);
+                redisTemplate.expire(LOAN_KEY_PREFIX + loanId + ETAG_KEY_SUFFIX, ttl);
+                redisTemplate.opsForZSet().add(DETAIL_INDEX_KEY, loanId, expiresAt(ttl));
+                ttlPolicy.recordApplied(ttl);
+            }
+        }
+
+        return new LoanDetailJson(
+                appendLiveFields(staticJson, getViewCount(loanId), uniqueViewerService.countUniqueViewers(loanId)),
+                eTag);
+    }
+
+    /** 실시간 조회수 (ZSet 점수 + 아직 flush 되지 않은 핫키 누적분, 핫키는 로컬 점수 사용) */
+    public long getViewCount(Long loanId) {
+        Double score = hotKeyService.localScore(loanId);
+        if (score == null) {
+            score = rankingService.score(loanId);
+        }
+        return ((score != null) ? score.longValue() : 0L) + hotKeyService.pendingIncrement(loanId);
+    }
+
+    /**
+     * 여러 Loan 상세 일괄 조회 (비교 페이지용)
+     * - loan:{id} 는 MGET 한 번, 점수는 ZMSCORE 한 번으로 조회
+     * - 캐시 MISS 는 findAllById 한 번으로 가져와 파이프라인으로 재적재
+     * - countView=true 일 때만 조회수 증가 (파이프라인)
+     */
+    public List<LoanDTO> getLoanDetails(List<Long> loanIds, boolean countView) {
+        return getLoanDetails(loanIds, countView, null);
+    }
+
+    public List<LoanDTO> getLoanDetails(List<Long> loanIds, boolean countView, String viewerId) {
+        List<Long> ids = loanIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("한 번에 최대 " + MAX_BATCH_SIZE + "건까지 조회할 수 있습니다: " + ids.size());
+        }
+
+        Map<Long, Map<String, Object>> loanCaches = loadLoanCaches(ids);
+        List<Double> scores = rankingService.scores(ids);
+
+        Map<Long, Double> scoreById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (scores.get(i) != null) {
+                scoreById.put(ids.get(i), scores.get(i));
+            }
+        }
+
+        List<Long> foundIds = ids.stream().filter(loanCaches::containsKey).collect(Collectors.toList());
+        if (countView) {
+            scoreById = incrementViewCounts(foundIds, scoreById, viewerId);
+        }
+
+        List<LoanDTO> result = new ArrayList<>(foundIds.size());
+        for (Long loanId : foundIds) {
+            Double score = scoreById.get(loanId);
+            long viewCount = ((score != null) ? score.longValue() : 0L) + hotKeyService.pendingIncrement(loanId);
+            result.add(toLoanDTO(loanCaches.get(loanId), viewCount));
+        }
+        return withUniqueViewers(result);
+    }
+
+    /**
+     * 조회수 일괄 증가 (파이프라인 한 번)
+     * - ZSet 에 있으면 ZINCRBY, 없으면 DB 조회수 + 1 로 ZADD (incrementViewCount 와 동일 규칙)
+     * - 핫키는 로컬 누적만 하고 ZSet 쓰기 생략 (ZSet 에 있는 경우만)
+     * - unique-viewer 모드에서 이미 본 상품은 건너뜀
+     * - 핫키 sketch 기록은 조회수를 올리는 경우(countView=true)에만
+     */
+    private Map<Long, Double> incrementViewCounts(List<Long> loanIds, Map<Long, Double> currentScores, String viewerId) {
+        Map<Long, Double> updated = new HashMap<>(currentScores);
+        Set<Long> newViews = uniqueViewerService.recordViews(loanIds, viewerId);
+        List<Long> coldIds = new ArrayList<>();
+        for (Long loanId : loanIds) {
+            boolean hot = hotKeyService.record(loanId);
+            if (!newViews.contains(loanId)) {
+                continue;
+            }
+            rollupService.record(loanId);
+            if (hot && currentScores.containsKey(loanId)) {
+                hotKeyService.bufferIncrement(loanId);
+            } else {
+                coldIds.add(loanId);
+            }
+        }
+
+        List<Long> seedIds = coldIds.stream()
+                .filter(id -> !currentScores.containsKey(id))
+                .collect(Collectors.toList());
+
+        Map<Long, Double> seeds = new HashMap<>();
+        if (!seedIds.isEmpty()) {
+            Map<Long, Long> dbViewCounts = loanViewRepository.findAllById(seedIds).stream()
+                    .collect(Collectors.toMap(LoanView::getLoanId,
+                            v -> v.getViewCount() != null ? v.getViewCount() : 0L));
+            for (Long loanId : seedIds) {
+                seeds.put(loanId, dbViewCounts.getOrDefault(loanId, 0L) + 1.0);
+            }
+        }
+
+        Map<Long, Double> increments = new HashMap<>();
+        coldIds.stream()
+                .filter(currentScores::containsKey)
+                .forEach(id -> increments.put(id, 1.0));
+
+        updated.putAll(seeds);
+        updated.putAll(rankingService.incrementAll(increments, seeds));
+        return updated;
+    }
+
+    /**
+     * 상품 정보 변경 반영: 캐싱되어 있던 loan:{id} 만 DB 최신값으로 다시 적재
+     * (DB 에서 사라진 상품은 캐시 삭제)
+     */
+    public void refreshLoanCaches(Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return;
+        }
+        // 캐싱 여부와 관계없이 Top 20 스냅샷 ETag 무효화 (스냅샷 응답에도 메타데이터 포함)
+        // 상세 ETag 는 캐싱되지 않은 상품도 조건부 요청으로 기록됐을 수 있으므로 삭제 → 다음 조회에서 다시 계산
+        bumpTopGeneration();
+        redisTemplate.delete(loanIds.stream().map(id -> LOAN_KEY_PREFIX + id + ETAG_KEY_SUFFIX).collect(Collectors.toList()));
+
+        // 만료 시각이 지나지 않은 상품만 (ZMSCORE 한 번)
+        List<Long> ids = new ArrayList<>(loanIds);
+        List<Double> expiries = redisTemplate.opsForZSet().score(DETAIL_INDEX_KEY, ids.toArray());
+        long now = System.currentTimeMillis();
+        List<Long> cachedIds = new ArrayList<>();
+        for (int i = 0; expiries != null && i < ids.size(); i++) {
+            if (expiries.get(i) != null && expiries.get(i) > now) {
+                cachedIds.add(ids.get(i));
+            }
+        }
+        if (cachedIds.isEmpty()) {
+            return;
+        }
+
+        // JSON 캐시는 다음 조회 때 새로 렌더링
+        redisTemplate.delete(cachedIds.stream().map(id -> LOAN_KEY_PREFIX + id + JSON_KEY_SUFFIX).collect(Collectors.toList()));
+
+        List<Loan> loans = loanRepository.findAllById(cachedIds);
+        List<Long> missingIds = new ArrayList<>(cachedIds);
+        loans.forEach(loan -> missingIds.remove(loan.getId()));
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                loans.forEach(loan -> writeDetailCache(ops, loan.getId(), toLoanCache(loan), ttlPolicy.ttlFor(loan.getId())));
+                return null;
+            }
+        });
+        evictLoanCaches(missingIds);
+        log.info("🔄 변경 반영 캐시 갱신: loanIds={}", cachedIds);
+    }
+
+    /** 캐싱된 loan:{id} 키 목록 (만료 시각이 지나지 않은 항목만, ZRANGEBYSCORE 한 번) */
+    public List<String> getCachedDetailKeys() {
+        Set<Object> cachedIds = redisTemplate.opsForZSet()
+                .rangeByScore(DETAIL_INDEX_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        if (cachedIds == null) {
+            return Collections.emptyList();
+        }
+        return cachedIds.stream()
+                .map(id -> LOAN_KEY_PREFIX + id)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /** 삭제된 상품 캐시 제거 (loan:{id}, 인덱스) */
+    public void evictLoanCaches(Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return;
+        }
+        bumpTopGeneration();
+        redisTemplate.delete(cacheKeysOf(loanIds));
+        redisTemplate.opsForZSet().remove(DETAIL_INDEX_KEY, loanIds.toArray());
+        log.info("🗑 캐시 삭제: loanIds={}", loanIds);
+    }
+
+    /** 만료 인덱스에서 지난 항목 정리 후 남은 loanId (ZREMRANGEBYSCORE + ZRANGE) */
+    private Set<Object> liveCachedIds() {
+        redisTemplate.opsForZSet().removeRangeByScore(DETAIL_INDEX_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+        return redisTemplate.opsForZSet().range(DETAIL_INDEX_KEY, 0, -1);
+    }
+
+    /** 만료 인덱스 점수 (지금 + TTL, epoch ms) */
+    static double expiresAt(Duration ttl) {
+        return System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    /** Top 20 스냅샷 세대 증가 */
+    private void bumpTopGeneration() {
+        redisTemplate.opsForValue().increment(TOP_GENERATION_KEY);
+    }
+
+    /**
+     * loan:{id} 일괄 조회 (MGET 한 번)
+     * - MISS 는 findAllById 한 번으로 가져와 파이프라인으로 재적재
+     * @return 존재하는 Loan 만 담은 loanId → 캐시 Map
+     */
+    private Map<Long, Map<String, Object>> loadLoanCaches(List<Long> ids) {
+        List<String> keys = ids.stream().map(id -> LOAN_KEY_PREFIX + id).collect(Collectors.toList());
+        List<Object> cached = redisTemplate.opsForValue().multiGet(keys);
+
+        Map<Long, Map<String, Object>> loanCaches = new HashMap<>();
+        List<Long> missIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = (cached != null) ? cached.get(i) : null;
+            if (value != null) {
+                loanCaches.put(ids.get(i), (Map<String, Object>) value);
+            } else {
+                missIds.add(ids.get(i));
+            }
+        }
+
+        meterRegistry.counter("loan_cache_hit").increment(ids.size() - missIds.size());
+        meterRegistry.counter("loan_cache_miss").increment(missIds.size());
+
+        if (!missIds.isEmpty()) {
+            log.info("❌ Cache MISS {}건 → DB 일괄 조회: loanIds={}", missIds.size(), missIds);
+            Map<Long, Map<String, Object>> loaded = new HashMap<>();
+            for (Loan loan : loanRepository.findAllById(missIds)) {
+                loaded.put(loan.getId(), toLoanCache(loan));
+            }
+            if (!loaded.isEmpty()) {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        loaded.forEach((loanId, loanCache) -> writeDetailCache(ops, loanId, loanCache, ttlPolicy.ttlFor(loanId)));
+                        return null;
+                    }
+                });
+                loanCaches.putAll(loaded);
+            }
+        }
+        return loanCaches;
+    }
+
+    /** loan:{id} + ETag(loan:{id}:v) 적재 + 만료 인덱스 등록 (파이프라인 안에서도 사용) */
+    private void writeDetailCache(RedisOperations<String, Object> ops, Long loanId,
+                                  Map<String, Object> loanCache, Duration ttl) {
+        ops.opsForValue().set(LOAN_KEY_PREFIX + loanId, loanCache, ttl);
+        ops.opsForValue().set(LOAN_KEY_PREFIX + loanId + ETAG_KEY_SUFFIX, detailETag(loanCache), ttl);
+        ops.opsForZSet().add(DETAIL_INDEX_KEY, loanId, expiresAt(ttl));
+        ttlPolicy.recordApplied(ttl);
+    }
+
+    /** 정적 정보 JSON (LoanDTO 필드 순서, 마지막 '}' 제외) */
+    byte[] renderStaticJson(Loan loan) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", loan.getId());
+        fields.put("productName", loan.getProductName());
+        fields.put("bank", loan.getBank());
+        fields.put("jobType", loan.getJobType());
+        fields.put("purpose", loan.getPurpose());
+        fields.put("rateType", loan.getRateType());
+        fields.put("interestRate", loan.getInterestRate());
+        fields.put("maxLimit", loan.getMaxLimit());
+        fields.put("periodMonths", loan.getPeriodMonths());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(fields);
+            return Arrays.copyOf(json, json.length - 1);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Loan JSON 직렬화 실패: " + loan.getId(), e);
+        }
+    }
+
+    /** 정적 JSON + 실시간 필드 + '}' (LoanDTO 직렬화 결과와 같은 형태, LoanCacheServiceTest 로 검증) */
+    static byte[] appendLiveFields(byte[] staticJson, long viewCount, Long uniqueViewers) {
+        StringBuilder live = new StringBuilder(48).append(",\"viewCount\":").append(viewCount);
+        if (uniqueViewers != null) {
+            live.append(",\"uniqueViewers\":").append(uniqueViewers);
+        }
+        byte[] tail = live.append('}').toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] body = Arrays.copyOf(staticJson, staticJson.length + tail.length);
+        System.arraycopy(tail, 0, body, staticJson.length, tail.length);
+        return body;
+    }
+
+    /** loan:{id}, loan:{id}:json, loan:{id}:v */
+    private List<String> cacheKeysOf(Collection<?> loanIds) {
+        List<String> keys = new ArrayList<>(loanIds.size() * 3);
+        for (Object loanId : loanIds) {
+            keys.add(LOAN_KEY_PREFIX + loanId);
+            keys.add(LOAN_KEY_PREFIX + loanId + JSON_KEY_SUFFIX);
+            keys.add(LOAN_KEY_PREFIX + loanId + ETAG_KEY_SUFFIX);
+        }
+        return keys;
+    }
+
+    /** 캐시 Map 의 정적 정보 → ETag */
+    private static String detailETag(Map<String, Object> loanCache) {
+        return detailETag(Long.valueOf(loanCache.get("id").toString()), loanCache.get("productName"), loanCache.get("bank"),
+                loanCache.get("jobType"), loanCache.get("purpose"), loanCache.get("rateType"), loanCache.get("interestRate"),
+                loanCache.get("maxLimit"), loanCache.get("periodMonths"));
+    }
+
+    /** 약한 ETag W/"loan-{id}-{정적 필드 해시}" (필드 순서 고정) */
+    private static String detailETag(Long loanId, Object... staticFields) {
+        return "W/\"loan-" + loanId + "-" + Integer.toHexString(Objects.hash(staticFields)) + "\"";
+    }
+
+    /** Loan → Redis 캐시용 Map (조회수 제외 정적 정보, null 컬럼 허용) */
+    private Map<String, Object> toLoanCache(Loan loan) {
+        Map<String, Object> loanCache = new LinkedHashMap<>();
+        loanCache.put("id", loan.getId());
+        loanCache.put("productName", loan.getProductName());
+        loanCache.put("bank", loan.getBank());
+        loanCache.put("jobType", loan.getJobType());
+        loanCache.put("purpose", loan.getPurpose());
+        loanCache.put("rateType", loan.getRateType());
+        loanCache.put("interestRate", loan.getInterestRate());
+        loanCache.put("maxLimit", loan.getMaxLimit());
+        loanCache.put("periodMonths", loan.getPeriodMonths());
+        return loanCache;
+    }
+
+    /** Redis 캐시 Map + 실시간 조회수 → LoanDTO */
+    private LoanDTO toLoanDTO(Map<String, Object> loanCache, long viewCount) {
+        return LoanDTO.builder()
+                .id(Long.valueOf(loanCache.get("id").toString()))
+                .productName((String) loanCache.get("productName"))
+                .bank((String) loanCache.get("bank"))
+                .jobType((String) loanCache.get("jobType"))
+                .purpose((String) loanCache.get("purpose"))
+                .rateType((String) loanCache.get("rateType"))
+                .interestRate((String) loanCache.get("interestRate"))
+                .maxLimit((Integer) loanCache.get("maxLimit"))
+                .periodMonths((Integer) loanCache.get("periodMonths"))
+                .viewCount(viewCount)
+                .build();
+    }
+
+    /** unique-viewer 모드면 순방문자 수 채움 */
+    private LoanDTO withUniqueViewers(LoanDTO dto) {
+        dto.setUniqueViewers(uniqueViewerService.countUniqueViewers(dto.getId()));
+        return dto;
+    }
+
+    private List<LoanDTO> withUniqueViewers(List<LoanDTO> dtos) {
+        if (uniqueViewerService.isEnabled()) {
+            Map<Long, Long> counts = uniqueViewerService.countUniqueViewers(
+                    dtos.stream().map(LoanDTO::getId).collect(Collectors.toList()));
+            dtos.forEach(dto -> dto.setUniqueViewers(counts.get(dto.getId())));
+        }
+        return dtos;
     }
 }
@@ -0,0 +1,171 @@
+package com.fintech.loan.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.entity.LoanProductEvent;
+import com.fintech.loan.repository.LoanProductEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LOAN_PRODUCTS 변경 이력(outbox) 폴링 → 변경된 상품 키만 갱신
+ * - 처리 여부는 이벤트 행의 PROCESSED_AT 으로 관리 (ID 는 커밋 순서가 아니므로 high-water mark 를 쓰지 않음)
+ *   → 늦게 커밋된 작은 ID 의 이벤트도 다음 폴링에서 반영
+ * - 인스턴스 간 락(토큰 + compare-and-delete)으로 한 곳에서만 폴링
+ * - U/I: 캐싱되어 있던 loan:{id} 만 재적재, D: 캐시 + 인기 순위에서 제거
+ * - 처리한 loanId 는 Redis Pub/Sub 으로 발행 → 모든 인스턴스 로컬 캐시 무효화
+ * - 배치 반영이 실패하면 이벤트별로 다시 반영, 실패한 이벤트만 ATTEMPTS / LAST_ERROR 기록 후 다음 폴링에서 재시도
+ *   maxAttempts 번 실패하면 처리 완료로 표시(park) → 한 건 때문에 outbox 전체가 멈추지 않음
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanChangeCaptureService {
+
+    public static final String INVALIDATION_CHANNEL = "loan:events:invalidate";
+
+    private static final String LOCK_KEY = "loan:cdc:lock";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final int MAX_ERROR_LENGTH = 500;   // LAST_ERROR 컬럼 길이
+
+    private final LoanProductEventRepository eventRepository;
+    private final LoanCacheService loanCacheService;
+    private final PopularityRankingService rankingService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisLock redisLock;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.cdc.batch-size:200}")
+    private int batchSize;
+
+    @Value("${loan.cdc.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${loan.cdc.max-attempts:5}")
+    private int maxAttempts;
+
+    /** 쌓인 변경 이력을 배치 단위로 처리 (최대 maxBatchesPerPoll 배치) */
+    public void poll() {
+        String token = redisLock.tryAcquire(LOCK_KEY, LOCK_TTL);
+        if (token == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (processBatch() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            redisLock.release(LOCK_KEY, token);
+        }
+    }
+
+    /** @return 조회한 이벤트 수 */
+    private int processBatch() {
+        List<LoanProductEvent> events =
+                eventRepository.findByProcessedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> processedIds = new ArrayList<>();
+        Set<Long> affectedIds = new LinkedHashSet<>();
+        try {
+            affectedIds.addAll(apply(events));
+            events.forEach(event -> processedIds.add(event.getId()));
+        } catch (RuntimeException e) {
+            // 배치 중 한 건이라도 실패하면 이벤트별로 다시 반영해 실패한 이벤트만 남김
+            log.warn("⚠️ 상품 변경 배치 반영 실패 → 이벤트별 재시도: {}", e.getMessage());
+            for (LoanProductEvent event : events) {
+                try {
+                    affectedIds.addAll(apply(List.of(event)));
+                    processedIds.add(event.getId());
+                } catch (RuntimeException eventError) {
+                    recordFailure(event, eventError);
+                }
+            }
+        }
+
+        if (!affectedIds.isEmpty()) {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, new ArrayList<>(affectedIds));
+        }
+
+        // 캐시 반영 후 처리 표시 → 중간에 실패하면 다음 폴링에서 다시 반영 (갱신은 멱등)
+        if (!processedIds.isEmpty()) {
+            eventRepository.markProcessed(processedIds, LocalDateTime.now());
+        }
+        meterRegistry.counter("loan_cdc_events").increment(processedIds.size());
+        log.info("📝 상품 변경 반영: events={}, processed={}, affected={}",
+                events.size(), processedIds.size(), affectedIds.size());
+        return events.size();
+    }
+
+    /**
+     * 이벤트 목록 반영
+     * @return 갱신/삭제한 loanId
+     */
+    private List<Long> apply(List<LoanProductEvent> events) {
+        // 같은 상품의 연속 변경은 한 번만 반영 (마지막 이벤트 기준)
+        // 갱신은 Oracle 현재 상태를 다시 읽으므로 늦게 커밋된 이벤트가 순서를 바꿔 와도 결과는 같음
+        Set<Long> changedIds = new LinkedHashSet<>();
+        Set<Long> deletedIds = new LinkedHashSet<>();
+        for (LoanProductEvent event : events) {
+            if (LoanProductEvent.DELETE.equals(event.getEventType())) {
+                changedIds.remove(event.getLoanId());
+                deletedIds.add(event.getLoanId());
+            } else {
+                deletedIds.remove(event.getLoanId());
+                changedIds.add(event.getLoanId());
+            }
+        }
+
+        loanCacheService.refreshLoanCaches(changedIds);
+        rankingService.reassignSegments(changedIds);
+        loanCacheService.evictLoanCaches(deletedIds);
+        deletedIds.forEach(rankingService::remove);
+
+        List<Long> affectedIds = new ArrayList<>(changedIds);
+        affectedIds.addAll(deletedIds);
+        return affectedIds;
+    }
+
+    /** 실패 기록, maxAttempts 도달 시 처리 완료로 표시(park) */
+    private void recordFailure(LoanProductEvent event, RuntimeException error) {
+        String message = String.valueOf(error);
+        eventRepository.markFailed(event.getId(), message.substring(0, Math.min(message.length(), MAX_ERROR_LENGTH)));
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            eventRepository.markProcessed(List.of(event.getId()), LocalDateTime.now());
+            meterRegistry.counter("loan_cdc_events_parked").increment();
+            log.error("🚫 상품 변경 이벤트 반영 포기: eventId={}, loanId={}, attempts={}",
+                    event.getId(), event.getLoanId(), attempts, error);
+        } else {
+            log.warn("⚠️ 상품 변경 이벤트 반영 실패: eventId={}, loanId={}, attempts={}",
+                    event.getId(), event.getLoanId(), attempts, error);
+        }
+    }
+
+    /** 보존 기간 지난 처리 완료 이력 삭제 (미처리 이력은 남김) */
+    @Transactional
+    public int purgeOlderThan(Duration retention) {
+        int deleted = eventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        log.info("🧹 변경 이력 정리: {}건", deleted);
+        return deleted;
+    }
+
+}
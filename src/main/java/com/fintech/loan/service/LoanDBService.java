@@ -1,10 +1,10 @@
 package com.fintech.loan.service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,9 +25,8 @@ public class LoanDBService {
 
     private final LoanRepository loanRepository;
     private final LoanViewRepository loanViewRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    private static final String DATA_KEY  = "loan:loanData";
+    private final PopularityRankingService rankingService;
+    private final ViewRollupService rollupService;
 
     /*
      * Oracle DB에서 조회수 증가 (캐싱 없음)
@@ -44,6 +43,7 @@ public class LoanDBService {
         
         // LoanView 조회수 증가
         loanViewRepository.incrementViewCount(loanId);
+        rollupService.record(loanId);
 
         return loan; // ✅ Loan 반환
     }
@@ -66,15 +66,19 @@ public class LoanDBService {
 
     /**
      * 인기 상품 Top N 조회
+     * - 조회수 인덱스 범위 읽기 한 번 (상품별 조회수 추가 조회 없음)
+     * - 조회 기록 없는 상품은 부족한 만큼만 0 으로 보충
+     * - limit 이 0 이하면 빈 목록 (PageRequest 는 0 이하 크기를 허용하지 않음)
      */
     public List<LoanDTO> getPopularLoansFromDB(int limit) {
-        return loanRepository.findTopLoans(limit).stream()
-                .map(l -> new LoanDTO(
-                        l.getId(),
-                        l.getProductName(),
-                        loanViewRepository.getViewCount(l.getId()) != null ? loanViewRepository.getViewCount(l.getId()) : 0L
-                ))
-                .collect(Collectors.toList());
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<LoanDTO> top = new ArrayList<>(loanRepository.findTopLoans(PageRequest.of(0, limit)));
+        if (top.size() < limit) {
+            top.addAll(loanRepository.findLoansWithoutViews(PageRequest.of(0, limit - top.size())));
+        }
+        return top;
     }
 
     /**
@@ -91,12 +95,15 @@ public class LoanDBService {
     }
 
     /**
-     * DB 전체 조회수 총합 (통계용)
+     * 전체 조회수 총합 (통계용)
+     * - 롤업 활성화 시 Oracle 합계로 초기화한 Redis 누적 카운터 (전체 스캔 없음, /stats/total-views 와 같은 값)
+     * - 비활성화 시 DB SUM 집계
      */
     public Long getTotalViewCount() {
-        return loanViewRepository.findAll().stream()
-                .mapToLong(v -> v.getViewCount() != null ? v.getViewCount() : 0L)
-                .sum();
+        if (rollupService.isEnabled()) {
+            return rollupService.getTotalViews();
+        }
+        return loanViewRepository.sumViewCount();
     }
 
     /**
@@ -106,8 +113,7 @@ public class LoanDBService {
     public void syncPopularLoansFromRedis() {
         log.info("🔄 Redis → Oracle DB 동기화 실행");
 
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        Set<ZSetOperations.TypedTuple<Object>> allLoans = zSetOps.rangeWithScores(DATA_KEY, 0, -1);
+        List<ZSetOperations.TypedTuple<Object>> allLoans = rankingService.allWithScores();
 
         if (allLoans == null || allLoans.isEmpty()) {
             log.info("⚠️ Redis ZSet 데이터 없음, 동기화 종료");
@@ -0,0 +1,40 @@
+package com.fintech.loan.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fintech.loan.cache.LoanSegmentIndex;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/** 상품 변경 이벤트 수신 → 이 인스턴스의 로컬 캐시 무효화 */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanInvalidationListener implements MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final HotKeyService hotKeyService;
+    private final LoanSegmentIndex segmentIndex;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(body instanceof List<?> loanIds)) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Object id : loanIds) {
+            ids.add(Long.valueOf(id.toString()));
+        }
+        ids.forEach(hotKeyService::evictLocal);
+        segmentIndex.invalidate(ids);
+        log.debug("📨 로컬 캐시 무효화: loanIds={}", loanIds);
+    }
+}
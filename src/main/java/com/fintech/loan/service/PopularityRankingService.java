@@ -0,0 +1,326 @@
+package com.fintech.loan.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+
+import com.fintech.loan.cache.LoanSegmentIndex;
+import com.fintech.loan.cache.PopularityKeyLayout;
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.SegmentAttribute;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 인기 순위 ZSet 접근 (단일 키 / 샤드 키 공통)
+ * - 쓰기는 loanId 가 속한 샤드 키로만 전달
+ * - Top N 은 샤드별 Top N 을 모아 병합 (scatter-gather)
+ * - 세그먼트(bank / purpose / jobType) ZSet 은 전체 순위와 같은 파이프라인에서 함께 증가
+ *   (클러스터 모드에서는 세그먼트도 loanId 의 전체 순위 샤드와 같은 슬롯으로 분할 → 조회 한 번의 쓰기가 한 노드로만 감)
+ */
+@Service
+@RequiredArgsConstructor
+public class PopularityRankingService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final PopularityKeyLayout keyLayout;
+    private final LoanSegmentIndex segmentIndex;
+    private final RedisLock redisLock;
+
+    private static final String SEGMENT_REGISTRY_KEY = "loan:rank:segments";   // 존재하는 세그먼트 키 목록
+    private static final String REBUILD_SUFFIX = ":rebuild";                   // 재구성용 멤버 목록 (세그먼트 키와 같은 슬롯)
+    private static final String REBUILD_LOCK_KEY = "loan:rank:segments:lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(1);
+    private static final Weights MEMBERS_ONLY = Weights.of(0, 1);             // 멤버 목록 점수 무시, 전체 순위 점수 사용
+
+    public String keyFor(Long loanId) {
+        return keyLayout.keyFor(loanId);
+    }
+
+    public List<String> allKeys() {
+        return keyLayout.allKeys();
+    }
+
+    public Double score(Long loanId) {
+        return redisTemplate.opsForZSet().score(keyFor(loanId), loanId);
+    }
+
+    /** 여러 loanId 점수 (샤드별 ZMSCORE, 샤드가 여러 개면 파이프라인 한 번) */
+    public List<Double> scores(List<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, List<Long>> idsByKey = groupByKey(loanIds);
+
+        if (idsByKey.size() == 1) {
+            Map.Entry<String, List<Long>> only = idsByKey.entrySet().iterator().next();
+            List<Double> scores = redisTemplate.opsForZSet().score(only.getKey(), only.getValue().toArray());
+            return scores != null ? scores : Collections.nCopies(loanIds.size(), null);
+        }
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, Object> ops = ((RedisOperations<String, Object>) operations).opsForZSet();
+                idsByKey.forEach((key, ids) -> ops.score(key, ids.toArray()));
+                return null;
+            }
+        });
+
+        Map<Long, Double> scoreById = new HashMap<>();
+        int i = 0;
+        for (List<Long> ids : idsByKey.values()) {
+            List<Double> shardScores = (List<Double>) results.get(i++);
+            for (int j = 0; j < ids.size(); j++) {
+                scoreById.put(ids.get(j), shardScores != null ? shardScores.get(j) : null);
+            }
+        }
+        return loanIds.stream().map(scoreById::get).collect(Collectors.toList());
+    }
+
+    public Double increment(Long loanId, double delta) {
+        return incrementAll(Map.of(loanId, delta), Collections.emptyMap()).get(loanId);
+    }
+
+    public void add(Long loanId, double score) {
+        incrementAll(Collections.emptyMap(), Map.of(loanId, score));
+    }
+
+    /** 전체 순위 + 세그먼트 순위에서 제거 (세그먼트 키를 모르는 경우 다음 재구성 때 정리) */
+    public void remove(Long loanId) {
+        List<String> segmentKeys = segmentIndex.invalidate(List.of(loanId))
+                .getOrDefault(loanId, Collections.emptyList());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, Object> ops = ((RedisOperations<String, Object>) operations).opsForZSet();
+                ops.remove(keyFor(loanId), loanId);
+                segmentKeys.forEach(key -> ops.remove(key, loanId));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * ZINCRBY(increments) + ZADD(seeds) 를 파이프라인 한 번으로 실행 (세그먼트 ZSet 포함)
+     * @return 증가 후 점수 (increments 기준)
+     */
+    public Map<Long, Double> incrementAll(Map<Long, Double> increments, Map<Long, Double> seeds) {
+        if (increments.isEmpty() && seeds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> incrementIds = new ArrayList<>(increments.keySet());
+        Set<Long> touchedIds = new HashSet<>(incrementIds);
+        touchedIds.addAll(seeds.keySet());
+        Map<Long, List<String>> segmentKeys = segmentIndex.keysFor(touchedIds);
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, Object> ops = ((RedisOperations<String, Object>) operations).opsForZSet();
+                // 전체 순위 ZINCRBY 결과가 앞쪽 incrementIds.size() 개
+                incrementIds.forEach(loanId -> ops.incrementScore(keyFor(loanId), loanId, increments.get(loanId)));
+                seeds.forEach((loanId, score) -> ops.add(keyFor(loanId), loanId, score));
+
+                incrementIds.forEach(loanId -> segmentKeys.get(loanId)
+                        .forEach(key -> ops.incrementScore(key, loanId, increments.get(loanId))));
+                seeds.forEach((loanId, score) -> segmentKeys.get(loanId)
+                        .forEach(key -> ops.add(key, loanId, score)));
+                return null;
+            }
+        });
+
+        Map<Long, Double> updated = new HashMap<>();
+        for (int i = 0; i < incrementIds.size(); i++) {
+            if (results.get(i) instanceof Double score) {
+                updated.put(incrementIds.get(i), score);
+            }
+        }
+        return updated;
+    }
+
+    /** 점수 내림차순 Top N (샤드별 Top N 병합) */
+    public List<TypedTuple<Object>> topN(int n) {
+        return mergeTop(allKeys(), n);
+    }
+
+    /** 키별 ZREVRANGE Top N 을 모아 점수 내림차순 N 개 (키가 하나면 바로 조회) */
+    private List<TypedTuple<Object>> mergeTop(List<String> keys, int n) {
+        if (keys.size() == 1) {
+            Set<TypedTuple<Object>> top = redisTemplate.opsForZSet().reverseRangeWithScores(keys.get(0), 0, n - 1);
+            return top != null ? new ArrayList<>(top) : Collections.emptyList();
+        }
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, Object> ops = ((RedisOperations<String, Object>) operations).opsForZSet();
+                keys.forEach(key -> ops.reverseRangeWithScores(key, 0, n - 1));
+                return null;
+            }
+        });
+
+        return results.stream()
+                .filter(shard -> shard instanceof Collection)
+                .flatMap(shard -> ((Collection<TypedTuple<Object>>) shard).stream())
+                .filter(t -> t.getScore() != null)
+                .sorted(Comparator.comparingDouble((TypedTuple<Object> t) -> t.getScore()).reversed())
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    /** Top N loanId (점수 내림차순) */
+    public List<Long> topIds(int n) {
+        return topN(n).stream()
+                .map(t -> Long.valueOf(t.getValue().toString()))
+                .collect(Collectors.toList());
+    }
+
+    /** 세그먼트 점수 내림차순 Top N loanId (단일 모드 ZREVRANGE 한 번, 클러스터 모드 샤드별 Top N 병합) */
+    public List<Long> topIdsInSegment(SegmentAttribute attribute, String value, int n) {
+        return mergeTop(keyLayout.segmentKeys(attribute.getCode(), value), n).stream()
+                .map(t -> Long.valueOf(t.getValue().toString()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 상품 속성 변경 반영: 이전 세그먼트에서 빼고 새 세그먼트에 현재 점수로 추가
+     */
+    public void reassignSegments(Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> previous = segmentIndex.invalidate(loanIds);
+        List<Long> ids = new ArrayList<>(loanIds);
+        Map<Long, List<String>> current = segmentIndex.keysFor(ids);
+        List<Double> scores = scores(ids);
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, Object> ops = ((RedisOperations<String, Object>) operations).opsForZSet();
+                for (int i = 0; i < ids.size(); i++) {
+                    Long loanId = ids.get(i);
+                    List<String> before = previous.getOrDefault(loanId, Collections.emptyList());
+                    List<String> after = current.get(loanId);
+                    before.stream().filter(key -> !after.contains(key)).forEach(key -> ops.remove(key, loanId));
+                    if (scores.get(i) != null) {
+                        double score = scores.get(i);
+                        after.forEach(key -> ops.add(key, loanId, score));
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 세그먼트 ZSet 전체를 전체 순위 점수로 재구성 (주기 실행 / 감쇠 / DB 동기화 후 호출)
+     * - 같은 임시 키를 쓰므로 인스턴스 간 락으로 한 번에 하나만 실행, 이미 실행 중이면 건너뜀
+     * @return 실행 여부
+     */
+    public boolean rebuildSegments() {
+        String token = redisLock.tryAcquire(REBUILD_LOCK_KEY, REBUILD_LOCK_TTL);
+        if (token == null) {
+            return false;
+        }
+        try {
+            rebuildSegmentsLocked();
+            return true;
+        } finally {
+            redisLock.release(REBUILD_LOCK_KEY, token);
+        }
+    }
+
+    /**
+     * - 로컬에서는 세그먼트별 멤버 목록만 계산, 점수는 ZINTERSTORE(멤버 목록 x 전체 순위 샤드)로 Redis 가 실행 시점 값으로 채움
+     *   → 멤버 목록을 읽은 뒤 들어온 증가분도 유실되지 않고, 키 교체도 명령 하나로 원자적
+     * - 읽은 뒤 새로 순위에 들어온 상품은 다음 재구성 때 세그먼트에 반영
+     * - 더 이상 상품이 없는 세그먼트 키는 삭제
+     */
+    private void rebuildSegmentsLocked() {
+        Map<String, Set<Long>> members = new HashMap<>();
+        Map<String, String> sourceKeys = new HashMap<>();   // 세그먼트 키 → 같은 슬롯의 전체 순위 샤드 키
+        for (String shardKey : allKeys()) {
+            Set<Object> shard = redisTemplate.opsForZSet().range(shardKey, 0, -1);
+            if (shard == null || shard.isEmpty()) {
+                continue;
+            }
+            List<Long> ids = shard.stream()
+                    .map(id -> Long.valueOf(id.toString()))
+                    .collect(Collectors.toList());
+            segmentIndex.keysFor(ids).forEach((loanId, keys) -> keys.forEach(key -> {
+                members.computeIfAbsent(key, k -> new HashSet<>()).add(loanId);
+                sourceKeys.put(key, shardKey);
+            }));
+        }
+
+        Set<Object> registered = redisTemplate.opsForSet().members(SEGMENT_REGISTRY_KEY);
+        List<String> emptied = registered == null ? Collections.emptyList() : registered.stream()
+                .map(Object::toString)
+                .filter(key -> !members.containsKey(key))
+                .collect(Collectors.toList());
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                members.forEach((key, ids) -> {
+                    String memberKey = key + REBUILD_SUFFIX;
+                    Set<TypedTuple<Object>> tuples = ids.stream()
+                            .map(id -> TypedTuple.of((Object) id, 0.0))
+                            .collect(Collectors.toSet());
+                    ops.delete(memberKey);
+                    ops.opsForZSet().add(memberKey, tuples);
+                    ops.opsForZSet().intersectAndStore(memberKey, List.of(sourceKeys.get(key)), key,
+                            Aggregate.SUM, MEMBERS_ONLY);
+                    ops.delete(memberKey);
+                });
+                emptied.forEach(ops::delete);
+                ops.delete(SEGMENT_REGISTRY_KEY);
+                if (!members.isEmpty()) {
+                    ops.opsForSet().add(SEGMENT_REGISTRY_KEY, members.keySet().toArray());
+                }
+                return null;
+            }
+        });
+    }
+
+    /** 전체 (loanId, 점수) - 감쇠 / DB 동기화용 */
+    public List<TypedTuple<Object>> allWithScores() {
+        List<TypedTuple<Object>> all = new ArrayList<>();
+        for (String key : allKeys()) {
+            Set<TypedTuple<Object>> shard = redisTemplate.opsForZSet().rangeWithScores(key, 0, -1);
+            if (shard != null) {
+                all.addAll(shard);
+            }
+        }
+        return all;
+    }
+
+    private Map<String, List<Long>> groupByKey(List<Long> loanIds) {
+        Map<String, List<Long>> idsByKey = new LinkedHashMap<>();
+        for (Long loanId : loanIds) {
+            idsByKey.computeIfAbsent(keyFor(loanId), k -> new ArrayList<>()).add(loanId);
+        }
+        return idsByKey;
+    }
+}
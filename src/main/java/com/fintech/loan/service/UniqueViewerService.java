@@ -0,0 +1,164 @@
+package com.fintech.loan.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+/**
+ * 순방문자(Unique Viewer) 집계 - HyperLogLog
+ * - 키: loan:uv:{loanId}:yyyyMMddHH (시간 버킷별, 해시 태그로 같은 상품 버킷은 같은 슬롯)
+ * - 사용자 수와 관계없이 키당 최대 12KB (순방문자 수 집계 전용)
+ * - 중복 조회 판단은 HLL 이 아닌 상품·버킷별 고정 크기 비트맵 loan:uv:{loanId}:yyyyMMddHH:seen 의 SETBIT 이전 값으로 수행
+ *   (PFADD 반환값은 레지스터 변경 여부라 방문자가 많은 상품일수록 새 viewer 도 0 을 반환함)
+ * - 비트맵은 dedupBits 비트(기본 131072 = 16KB)로 고정 → viewer 수와 관계없이 상품·버킷당 메모리 상한
+ *   대신 다른 viewer 와 비트가 겹치면 새 viewer 도 중복으로 봄 (오탐률 ≈ 버킷 내 viewer 수 / dedupBits)
+ * - 같은 버킷에서 이미 본 viewer 는 false 반환 → 호출 측에서 ZSet 증가 생략
+ */
+@Service
+public class UniqueViewerService {
+
+    private static final String UV_KEY_FORMAT = "loan:uv:{%d}:%s";
+    private static final String SEEN_KEY_FORMAT = "loan:uv:{%d}:%s:seen";   // loanId, 버킷 (중복 판단 비트맵)
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    private final boolean enabled;
+    private final int windowHours;
+    private final int dedupBits;
+
+    public UniqueViewerService(RedisTemplate<String, Object> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${loan.unique-viewer.enabled:false}") boolean enabled,
+                               @Value("${loan.unique-viewer.window-hours:24}") int windowHours,
+                               @Value("${loan.unique-viewer.dedup-bits:131072}") int dedupBits) {
+        if (windowHours <= 0) {
+            throw new IllegalArgumentException("loan.unique-viewer.window-hours 는 0보다 커야 합니다: " + windowHours);
+        }
+        if (dedupBits <= 0) {
+            throw new IllegalArgumentException("loan.unique-viewer.dedup-bits 는 0보다 커야 합니다: " + dedupBits);
+        }
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowHours = windowHours;
+        this.dedupBits = dedupBits;
+    }
+
+    /**
+     * 조회 기록 (PFADD + EXPIRE + SETBIT + EXPIRE 파이프라인 한 번)
+     * @return 이번 버킷에서 처음 본 viewer 면 true (비활성/식별자 없음도 true)
+     */
+    public boolean recordView(Long loanId, String viewerId) {
+        return recordViews(List.of(loanId), viewerId).contains(loanId);
+    }
+
+    /**
+     * 여러 상품 조회 기록 (PFADD + EXPIRE + SETBIT + EXPIRE 파이프라인 한 번)
+     * @return 이번 버킷에서 처음 본 상품 loanId (비활성/식별자 없음이면 전체)
+     */
+    public Set<Long> recordViews(List<Long> loanIds, String viewerId) {
+        if (!enabled || viewerId == null || loanIds.isEmpty()) {
+            return new HashSet<>(loanIds);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long offset = bitOffset(viewerId);
+        // 중복 판단 비트맵은 현재 버킷이 끝날 때까지만 유지
+        Duration seenTtl = Duration.between(now, now.truncatedTo(ChronoUnit.HOURS).plusHours(1)).plusMinutes(1);
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Long loanId : loanIds) {
+                    String key = bucketKey(loanId, now);
+                    ops.opsForHyperLogLog().add(key, viewerId);
+                    ops.expire(key, Duration.ofHours(windowHours + 1L));
+                    String seenKey = String.format(SEEN_KEY_FORMAT, loanId, now.format(BUCKET_FORMAT));
+                    ops.opsForValue().setBit(seenKey, offset, true);
+                    ops.expire(seenKey, seenTtl);
+                }
+                return null;
+            }
+        });
+
+        Set<Long> newViews = new HashSet<>();
+        for (int i = 0; i < loanIds.size(); i++) {
+            // SETBIT 은 이전 비트를 반환 → 0 이면 이번 버킷에서 처음 본 viewer
+            if (Boolean.FALSE.equals(results.get(i * 4 + 2))) {
+                newViews.add(loanIds.get(i));
+            }
+        }
+        meterRegistry.counter("loan_duplicate_view_skipped").increment(loanIds.size() - newViews.size());
+        return newViews;
+    }
+
+    /** 최근 windowHours 시간 순방문자 수 (비활성이면 null) */
+    public Long countUniqueViewers(Long loanId) {
+        if (!enabled) {
+            return null;
+        }
+        return redisTemplate.opsForHyperLogLog().size(windowKeys(loanId));
+    }
+
+    /** 여러 상품 순방문자 수 (PFCOUNT 파이프라인 한 번, 비활성이면 빈 Map) */
+    public Map<Long, Long> countUniqueViewers(List<Long> loanIds) {
+        if (!enabled || loanIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                loanIds.forEach(loanId -> ops.opsForHyperLogLog().size(windowKeys(loanId)));
+                return null;
+            }
+        });
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (int i = 0; i < loanIds.size(); i++) {
+            Object count = results.get(i);
+            counts.put(loanIds.get(i), count instanceof Long c ? c : 0L);
+        }
+        return counts;
+    }
+
+    /** viewer 식별자(IP + User-Agent 등) 해시 → 비트맵 오프셋 */
+    long bitOffset(String viewerId) {
+        long hash = UUID.nameUUIDFromBytes(viewerId.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+        return Math.floorMod(hash, (long) dedupBits);
+    }
+
+    private String bucketKey(Long loanId, LocalDateTime time) {
+        return String.format(UV_KEY_FORMAT, loanId, time.format(BUCKET_FORMAT));
+    }
+
+    private String[] windowKeys(Long loanId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        String[] keys = new String[windowHours];
+        for (int i = 0; i < windowHours; i++) {
+            keys[i] = bucketKey(loanId, now.minusHours(i));
+        }
+        return keys;
+    }
+}
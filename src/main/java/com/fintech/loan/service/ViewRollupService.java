@@ -0,0 +1,242 @@
+package com.fintech.loan.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.RollupPeriod;
+import com.fintech.loan.domain.ViewStatDTO;
+import com.fintech.loan.repository.LoanViewRepository;
+import com.fintech.loan.repository.ViewRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 조회수 롤업 (시간/일 단위 집계)
+ * - 조회 시 로컬 버퍼에 누적 → 주기적으로 HINCRBY 파이프라인 한 번으로 Redis 반영 (요청당 추가 왕복 없음)
+ * - Redis: 기간별 Hash loan:rollup:{H:yyyyMMddHH}:live, 전체 누적 loan:rollup:total (최초 1회 Oracle 합계로 초기화)
+ * - 기간이 끝나면 :flush 로 RENAME 후 flush ID 를 붙여 LOAN_VIEW_ROLLUP 에 MERGE (재시도해도 중복 없음)
+ * - DB 저장은 인스턴스 간 락으로 한 곳에서만 실행
+ * - 통계 조회는 집계 테이블만 사용 → 전체 상품 스캔 없음
+ */
+@Service
+@Slf4j
+public class ViewRollupService {
+
+    private static final String TOTAL_KEY = "loan:rollup:total";
+    private static final String PENDING_KEY = "loan:rollup:pending";      // DB 로 옮길 기간 목록 (예: H:2025101913)
+    private static final String FLUSHING_KEY = "loan:rollup:flushing";    // DB 저장 중인 기간 목록 (실패 시 재시도)
+    private static final String LOCK_KEY = "loan:rollup:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+    private static final String FLUSH_ID_FIELD = "flushId";               // :flush Hash 안의 배치 ID (loanId 와 겹치지 않음)
+    private static final int MAX_TOP_LIMIT = 50;
+    private static final String LIVE_KEY_FORMAT = "loan:rollup:{%s}:live";
+    private static final String FLUSH_KEY_FORMAT = "loan:rollup:{%s}:flush";
+    private static final Duration LIVE_KEY_TTL = Duration.ofDays(3);     // DB flush 가 멈춰도 무한히 쌓이지 않도록
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ViewRollupRepository rollupRepository;
+    private final LoanViewRepository loanViewRepository;
+    private final RedisLock redisLock;
+    private final boolean enabled;
+
+    private volatile boolean totalSeeded;
+
+    private final Map<BufferKey, LongAdder> buffer = new ConcurrentHashMap<>();
+
+    private record BufferKey(LocalDateTime hourStart, Long loanId) {}
+
+    public ViewRollupService(RedisTemplate<String, Object> redisTemplate,
+                             ViewRollupRepository rollupRepository,
+                             LoanViewRepository loanViewRepository,
+                             RedisLock redisLock,
+                             @Value("${loan.rollup.enabled:false}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.rollupRepository = rollupRepository;
+        this.loanViewRepository = loanViewRepository;
+        this.redisLock = redisLock;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 조회 1건 기록 (로컬 버퍼) */
+    public void record(Long loanId) {
+        record(loanId, 1L);
+    }
+
+    public void record(Long loanId, long delta) {
+        if (!enabled || delta <= 0) {
+            return;
+        }
+        LocalDateTime hourStart = RollupPeriod.HOUR.startOf(LocalDateTime.now());
+        buffer.computeIfAbsent(new BufferKey(hourStart, loanId), k -> new LongAdder()).add(delta);
+    }
+
+    /** 로컬 버퍼 → Redis (파이프라인 한 번) */
+    public void flushBuffer() {
+        Map<LocalDateTime, Map<Long, Long>> deltasByHour = new HashMap<>();
+        buffer.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltasByHour.computeIfAbsent(key.hourStart(), h -> new HashMap<>()).put(key.loanId(), delta);
+            }
+        });
+        LocalDateTime currentHour = RollupPeriod.HOUR.startOf(LocalDateTime.now());
+        buffer.entrySet().removeIf(e -> e.getKey().hourStart().isBefore(currentHour) && e.getValue().sum() == 0);
+
+        if (deltasByHour.isEmpty()) {
+            return;
+        }
+
+        seedTotal();   // 첫 INCRBY 가 0 에서 시작하지 않도록
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                long total = 0;
+                for (Map.Entry<LocalDateTime, Map<Long, Long>> entry : deltasByHour.entrySet()) {
+                    for (RollupPeriod period : RollupPeriod.values()) {
+                        String periodId = periodId(period, entry.getKey());
+                        String liveKey = String.format(LIVE_KEY_FORMAT, periodId);
+                        entry.getValue().forEach((loanId, delta) ->
+                                ops.opsForHash().increment(liveKey, loanId.toString(), delta));
+                        ops.expire(liveKey, LIVE_KEY_TTL);
+                        ops.opsForSet().add(PENDING_KEY, periodId);
+                    }
+                    total += entry.getValue().values().stream().mapToLong(Long::longValue).sum();
+                }
+                ops.opsForValue().increment(TOTAL_KEY, total);
+                return null;
+            }
+        });
+    }
+
+    /** 끝난 기간의 Redis 집계를 LOAN_VIEW_ROLLUP 으로 이동 */
+    public void flushToDatabase() {
+        String token = redisLock.tryAcquire(LOCK_KEY, LOCK_TTL);
+        if (token == null) {
+            return;
+        }
+        try {
+            // pending → flushing 으로 먼저 옮김: RENAME 이후 늦게 들어온 증가분이 pending 에 다시 추가돼도 지워지지 않음
+            LocalDateTime now = LocalDateTime.now();
+            Set<Object> pending = redisTemplate.opsForSet().members(PENDING_KEY);
+            if (pending != null) {
+                for (Object member : pending) {
+                    String periodId = member.toString();
+                    RollupPeriod period = RollupPeriod.fromCode(periodId.substring(0, 1));
+                    if (!period.parseBucket(periodId.substring(2)).isBefore(period.startOf(now))) {
+                        continue;   // 진행 중인 기간
+                    }
+                    redisTemplate.opsForSet().add(FLUSHING_KEY, periodId);
+                    redisTemplate.opsForSet().remove(PENDING_KEY, periodId);
+                }
+            }
+
+            Set<Object> flushing = redisTemplate.opsForSet().members(FLUSHING_KEY);
+            if (flushing == null) {
+                return;
+            }
+            for (Object member : flushing) {
+                String periodId = member.toString();
+                flushPeriod(periodId);
+                redisTemplate.opsForSet().remove(FLUSHING_KEY, periodId);
+            }
+        } finally {
+            redisLock.release(LOCK_KEY, token);
+        }
+    }
+
+    /**
+     * 누적 조회수 (Oracle 합계로 초기화한 Redis 카운터, O(1))
+     * - 롤업 비활성화 시 카운터가 움직이지 않으므로 초기화하지 않고 DB 합계 반환
+     */
+    public long getTotalViews() {
+        if (!enabled) {
+            return loanViewRepository.sumViewCount();
+        }
+        seedTotal();
+        Object total = redisTemplate.opsForValue().get(TOTAL_KEY);
+        long pending = buffer.values().stream().mapToLong(LongAdder::sum).sum();
+        return (total != null ? Long.parseLong(total.toString()) : 0L) + pending;
+    }
+
+    /** 상품별 기간 추이 */
+    public List<ViewStatDTO> getTrend(Long loanId, RollupPeriod period, LocalDateTime from, LocalDateTime to) {
+        return rollupRepository.findTrend(loanId, period, period.startOf(from), to);
+    }
+
+    /** 기간 Top N */
+    public List<ViewStatDTO> getTop(RollupPeriod period, LocalDateTime at, int limit) {
+        if (limit <= 0 || limit > MAX_TOP_LIMIT) {
+            throw new IllegalArgumentException("limit 은 1 ~ " + MAX_TOP_LIMIT + " 사이여야 합니다: " + limit);
+        }
+        return rollupRepository.findTop(period, period.startOf(at), limit);
+    }
+
+    private void flushPeriod(String periodId) {
+        RollupPeriod period = RollupPeriod.fromCode(periodId.substring(0, 1));
+        LocalDateTime periodStart = period.parseBucket(periodId.substring(2));
+        String liveKey = String.format(LIVE_KEY_FORMAT, periodId);
+        String flushKey = String.format(FLUSH_KEY_FORMAT, periodId);
+
+        // 지난번 실패로 남은 flush 키 먼저 처리 후 live → flush 이동 (RENAME 이 남은 키를 덮어쓰지 않도록)
+        insertFlushKey(flushKey, period, periodStart);
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(liveKey))) {
+            redisTemplate.rename(liveKey, flushKey);
+            insertFlushKey(flushKey, period, periodStart);
+        }
+    }
+
+    private void insertFlushKey(String flushKey, RollupPeriod period, LocalDateTime periodStart) {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(flushKey))) {
+            return;
+        }
+        // flush 키마다 한 번 정한 ID 로 MERGE → 저장 후 DEL 전에 죽어도 재실행 시 같은 행이라 중복 없음
+        redisTemplate.opsForHash().putIfAbsent(flushKey, FLUSH_ID_FIELD, UUID.randomUUID().toString());
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(flushKey);
+        String flushId = entries.remove(FLUSH_ID_FIELD).toString();
+
+        Map<Long, Long> viewCounts = new HashMap<>();
+        entries.forEach((loanId, count) ->
+                viewCounts.put(Long.valueOf(loanId.toString()), Long.valueOf(count.toString())));
+
+        if (!viewCounts.isEmpty()) {
+            rollupRepository.mergeAll(period, periodStart, flushId, viewCounts);
+        }
+        redisTemplate.delete(flushKey);
+        log.info("📊 조회수 집계 저장: period={}, start={}, rows={}, flushId={}",
+                period, periodStart, viewCounts.size(), flushId);
+    }
+
+    /** 누적 카운터가 없으면 Oracle 합계로 한 번 초기화 (SET NX → 여러 인스턴스 중 하나만 반영) */
+    private void seedTotal() {
+        if (totalSeeded) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(TOTAL_KEY))) {
+            redisTemplate.opsForValue().setIfAbsent(TOTAL_KEY, loanViewRepository.sumViewCount());
+        }
+        totalSeeded = true;
+    }
+
+    private String periodId(RollupPeriod period, LocalDateTime hourStart) {
+        return period.getCode() + ":" + period.bucketOf(hourStart);
+    }
+}
@@ -0,0 +1,35 @@
+-- LOAN_PRODUCTS 변경 이력 (outbox)
+-- LoanChangeCaptureService 가 PROCESSED_AT 이 비어 있는 이력을 ID 순으로 배치 폴링하여
+-- Redis / 로컬 캐시를 갱신한 뒤 PROCESSED_AT 을 기록한다.
+-- IDENTITY 값은 커밋 순서가 아니므로(먼저 채번된 트랜잭션이 늦게 커밋될 수 있음) 마지막 ID 를 offset 으로 쓰지 않는다.
+
+CREATE TABLE LOAN_PRODUCT_EVENTS (
+    ID          NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    LOAN_ID     NUMBER       NOT NULL,
+    EVENT_TYPE  VARCHAR2(1)  NOT NULL,   -- I: INSERT, U: UPDATE, D: DELETE
+    CREATED_AT  TIMESTAMP    DEFAULT SYSTIMESTAMP NOT NULL,
+    PROCESSED_AT TIMESTAMP,              -- NULL: 미처리
+    ATTEMPTS    NUMBER       DEFAULT 0 NOT NULL,   -- 반영 실패 횟수 (loan.cdc.max-attempts 도달 시 처리 완료로 표시)
+    LAST_ERROR  VARCHAR2(500)
+);
+
+-- 기존 테이블:
+-- ALTER TABLE LOAN_PRODUCT_EVENTS ADD (PROCESSED_AT TIMESTAMP, ATTEMPTS NUMBER DEFAULT 0 NOT NULL, LAST_ERROR VARCHAR2(500));
+
+CREATE INDEX IDX_LOAN_PRODUCT_EVENTS_CREATED ON LOAN_PRODUCT_EVENTS (CREATED_AT);
+-- 미처리 이력 조회 (PROCESSED_AT IS NULL ORDER BY ID)
+CREATE INDEX IDX_LOAN_PRODUCT_EVENTS_PENDING ON LOAN_PRODUCT_EVENTS (PROCESSED_AT, ID);
+
+CREATE OR REPLACE TRIGGER TRG_LOAN_PRODUCTS_OUTBOX
+AFTER INSERT OR UPDATE OR DELETE ON LOAN_PRODUCTS
+FOR EACH ROW
+BEGIN
+    IF INSERTING THEN
+        INSERT INTO LOAN_PRODUCT_EVENTS (LOAN_ID, EVENT_TYPE) VALUES (:NEW.ID, 'I');
+    ELSIF UPDATING THEN
+        INSERT INTO LOAN_PRODUCT_EVENTS (LOAN_ID, EVENT_TYPE) VALUES (:NEW.ID, 'U');
+    ELSE
+        INSERT INTO LOAN_PRODUCT_EVENTS (LOAN_ID, EVENT_TYPE) VALUES (:OLD.ID, 'D');
+    END IF;
+END;
+/
@@ -0,0 +1,19 @@
+-- 조회수 시간/일 단위 집계 (flush 단위 append-only)
+-- ViewRollupService 가 Redis 누적분을 기간 종료 후 flush ID 를 붙여 배치 MERGE 한다.
+-- 같은 flush 를 다시 저장해도 PK 가 같아 중복되지 않는다.
+-- 기간 종료 후 늦게 들어온 증가분은 다른 flush ID 로 저장되므로 조회 시 SUM 으로 합산한다.
+
+CREATE TABLE LOAN_VIEW_ROLLUP (
+    PERIOD_TYPE   VARCHAR2(1)  NOT NULL,   -- H: 시간, D: 일
+    PERIOD_START  TIMESTAMP    NOT NULL,
+    LOAN_ID       NUMBER       NOT NULL,
+    FLUSH_ID      VARCHAR2(36) NOT NULL,
+    VIEW_COUNT    NUMBER       NOT NULL,
+    CREATED_AT    TIMESTAMP    DEFAULT SYSTIMESTAMP NOT NULL,
+    CONSTRAINT PK_LOAN_VIEW_ROLLUP PRIMARY KEY (PERIOD_TYPE, PERIOD_START, LOAN_ID, FLUSH_ID)
+);
+
+-- 기간별 Top N
+CREATE INDEX IDX_LOAN_VIEW_ROLLUP_PERIOD ON LOAN_VIEW_ROLLUP (PERIOD_TYPE, PERIOD_START, LOAN_ID, VIEW_COUNT);
+-- 상품별 추이
+CREATE INDEX IDX_LOAN_VIEW_ROLLUP_LOAN ON LOAN_VIEW_ROLLUP (LOAN_ID, PERIOD_TYPE, PERIOD_START, VIEW_COUNT);
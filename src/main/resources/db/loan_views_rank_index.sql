@@ -0,0 +1,14 @@
+-- 인기 상품 Top N 인덱스 (LoanRepository.findTopLoans)
+-- view_count 를 NOT NULL 로 두고 (view_count DESC, loan_id) 인덱스를 만들면
+-- ORDER BY view_count DESC, loan_id FETCH FIRST N ROWS 가 전체 정렬 없이 인덱스 앞 N 건 읽기(STOPKEY)로 끝난다.
+
+UPDATE loan_views SET view_count = 0 WHERE view_count IS NULL;
+ALTER TABLE loan_views MODIFY (view_count DEFAULT 0 NOT NULL);
+
+-- 조회 기록이 없는 상품도 0 으로 채워 두면 보충 쿼리(findLoansWithoutViews)가 거의 실행되지 않음
+INSERT INTO loan_views (loan_id, view_count)
+SELECT p.id, 0 FROM loan_products p
+WHERE NOT EXISTS (SELECT 1 FROM loan_views v WHERE v.loan_id = p.id);
+COMMIT;
+
+CREATE INDEX IDX_LOAN_VIEWS_RANK ON loan_views (view_count DESC, loan_id);
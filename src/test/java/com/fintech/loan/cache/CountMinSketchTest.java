@@ -0,0 +1,51 @@
+package com.fintech.loan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void 추정값은_실제_빈도보다_작지_않다() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (long id = 1; id <= 500; id++) {
+            for (int i = 0; i < id % 7; i++) {
+                sketch.add(id);
+            }
+        }
+        for (long id = 1; id <= 500; id++) {
+            assertThat(sketch.estimate(id)).isGreaterThanOrEqualTo(id % 7);
+        }
+    }
+
+    @Test
+    void 충돌이_없으면_정확한_빈도를_반환한다() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        for (int i = 0; i < 300; i++) {
+            sketch.add(42L);
+        }
+        assertThat(sketch.add(42L)).isEqualTo(301);
+        assertThat(sketch.estimate(42L)).isEqualTo(301);
+        assertThat(sketch.estimate(43L)).isZero();
+    }
+
+    @Test
+    void halve_는_모든_카운터를_절반으로_줄인다() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        for (int i = 0; i < 201; i++) {
+            sketch.add(7L);
+        }
+        sketch.halve();
+        assertThat(sketch.estimate(7L)).isEqualTo(100);
+        sketch.halve();
+        assertThat(sketch.estimate(7L)).isEqualTo(50);
+    }
+
+    @Test
+    void 잘못된_크기는_거절한다() {
+        assertThatThrownBy(() -> new CountMinSketch(0, 16)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(4, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintech.loan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class PopularityKeyLayoutTest {
+
+    @Test
+    void 단일_모드는_기존_키_하나만_사용한다() {
+        PopularityKeyLayout layout = new PopularityKeyLayout(false, 8);
+
+        assertThat(layout.allKeys()).containsExactly(PopularityKeyLayout.LEGACY_KEY);
+        assertThat(layout.keyFor(12345L)).isEqualTo(PopularityKeyLayout.LEGACY_KEY);
+    }
+
+    @Test
+    void 클러스터_모드는_해시_태그가_붙은_샤드_키로_분배한다() {
+        PopularityKeyLayout layout = new PopularityKeyLayout(true, 4);
+
+        assertThat(layout.allKeys()).containsExactly(
+                "loan:loanData:{p0}", "loan:loanData:{p1}", "loan:loanData:{p2}", "loan:loanData:{p3}");
+        assertThat(layout.keyFor(7L)).isEqualTo(layout.keyFor(7L));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long id = 1; id <= 10_000; id++) {
+            counts.merge(layout.keyFor(id), 1, Integer::sum);
+        }
+        // 샤드당 기대값 2500 의 ±10% 이내
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count -> assertThat(count).isBetween(2250, 2750));
+    }
+
+    @Test
+    void 샤드를_하나_늘리면_약_1_K_만_이동한다() {
+        int moved = 0;
+        int total = 10_000;
+        for (long id = 1; id <= total; id++) {
+            int before = PopularityKeyLayout.jumpConsistentHash(id, 8);
+            int after = PopularityKeyLayout.jumpConsistentHash(id, 9);
+            if (before != after) {
+                moved++;
+                // 이동하는 키는 새 샤드로만 간다
+                assertThat(after).isEqualTo(8);
+            }
+        }
+        // 기대값 total / 9 ≈ 1111
+        assertThat(moved).isBetween(950, 1300);
+    }
+
+    @Test
+    void 세그먼트_키는_loanId_의_전체_순위_샤드와_같은_해시_태그를_쓴다() {
+        PopularityKeyLayout single = new PopularityKeyLayout(false, 4);
+        assertThat(single.segmentKeyFor("bank", "KB", 7L)).isEqualTo("loan:rank:{bank:KB}");
+        assertThat(single.segmentKeys("bank", "KB")).containsExactly("loan:rank:{bank:KB}");
+
+        PopularityKeyLayout cluster = new PopularityKeyLayout(true, 4);
+        assertThat(cluster.segmentKeys("bank", "KB")).containsExactly(
+                "loan:rank:bank:KB:{p0}", "loan:rank:bank:KB:{p1}", "loan:rank:bank:KB:{p2}", "loan:rank:bank:KB:{p3}");
+        for (long id = 1; id <= 100; id++) {
+            String shardTag = cluster.keyFor(id).substring(cluster.keyFor(id).indexOf('{'));
+            assertThat(cluster.segmentKeyFor("bank", "KB", id)).endsWith(shardTag);
+        }
+    }
+
+    @Test
+    void 클러스터_모드에서_샤드_수는_양수여야_한다() {
+        assertThatThrownBy(() -> new PopularityKeyLayout(true, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import com.fintech.loan.repository.LoanRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheTtlPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisTemplate<String, Object> redisTemplate;
+    private CacheTtlPolicy ttlPolicy;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        HotKeyService hotKeyService = new HotKeyService(mock(PopularityRankingService.class), mock(LoanRepository.class),
+                meterRegistry, 10, 2, 4, 2048, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        redisTemplate = mock(RedisTemplate.class);
+        ttlPolicy = new CacheTtlPolicy(hotKeyService, redisTemplate, meterRegistry,
+                Duration.ofSeconds(20), Duration.ofMinutes(2), 0.25);
+    }
+
+    @Test
+    void 순위가_높을수록_TTL_이_길다() {
+        ttlPolicy.updateRanks(List.of(1L, 2L));
+
+        assertThat(ttlPolicy.ttlFor(1L)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(ttlPolicy.ttlFor(2L)).isEqualTo(Duration.ofSeconds(70));
+        assertThat(ttlPolicy.ttlFor(3L)).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    void TTL_분포는_실제로_부여할_때만_기록된다() {
+        ttlPolicy.ttlFor(1L);
+        ttlPolicy.ttlFor(1L);
+        assertThat(assignedTtlCount()).isZero();
+
+        ttlPolicy.recordApplied(ttlPolicy.ttlFor(1L));
+        assertThat(assignedTtlCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 남은_TTL_이_충분하면_연장하지_않는다() {
+        Duration target = Duration.ofMinutes(2);
+
+        assertThat(ttlPolicy.shouldExtend(target.toMillis() / 2, target)).isFalse();
+        assertThat(ttlPolicy.shouldExtend(target.toMillis() / 10, target)).isTrue();
+        assertThat(ttlPolicy.shouldExtend(-1L, target)).isTrue();
+        assertThat(ttlPolicy.shouldExtend(-2L, target)).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 상세_키_수는_만료된_항목을_정리한_뒤_센다() {
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.zCard(LoanCacheService.DETAIL_INDEX_KEY)).thenReturn(3L);
+
+        ttlPolicy.refreshMetrics();
+
+        InOrder order = inOrder(zSet);
+        order.verify(zSet).removeRangeByScore(eq(LoanCacheService.DETAIL_INDEX_KEY), eq(Double.NEGATIVE_INFINITY), anyDouble());
+        order.verify(zSet).zCard(LoanCacheService.DETAIL_INDEX_KEY);
+        assertThat(meterRegistry.get("loan_cache_detail_keys").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void 클러스터의_노드별_used_memory_를_합산한다() {
+        Properties standalone = new Properties();
+        standalone.setProperty("used_memory", "1024");
+        standalone.setProperty("used_memory_rss", "4096");
+        assertThat(CacheTtlPolicy.sumUsedMemory(standalone)).isEqualTo(1024L);
+
+        Properties cluster = new Properties();
+        cluster.setProperty("127.0.0.1:7000.used_memory", "1000");
+        cluster.setProperty("127.0.0.1:7001.used_memory", "2000");
+        cluster.setProperty("127.0.0.1:7001.used_memory_peak", "9000");
+        assertThat(CacheTtlPolicy.sumUsedMemory(cluster)).isEqualTo(3000L);
+    }
+
+    private long assignedTtlCount() {
+        return meterRegistry.get("loan_cache_ttl_seconds").summary().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.repository.LoanRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HotKeyServiceTest {
+
+    private static final long THRESHOLD = 10;
+
+    private PopularityRankingService rankingService;
+    private LoanRepository loanRepository;
+    private HotKeyService hotKeyService;
+
+    @BeforeEach
+    void setUp() {
+        rankingService = mock(PopularityRankingService.class);
+        loanRepository = mock(LoanRepository.class);
+        hotKeyService = new HotKeyService(rankingService, loanRepository, new SimpleMeterRegistry(),
+                THRESHOLD, 2, 4, 2048, Duration.ofSeconds(5), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void 임계치에_도달하면_핫키로_승격된다() {
+        for (int i = 1; i < THRESHOLD; i++) {
+            assertThat(hotKeyService.record(1L)).isFalse();
+        }
+        assertThat(hotKeyService.record(1L)).isTrue();
+        assertThat(hotKeyService.isHot(1L)).isTrue();
+    }
+
+    @Test
+    void 최대_개수를_넘으면_가장_빈도가_낮은_핫키를_밀어낸다() {
+        recordTimes(1L, 30);
+        recordTimes(2L, 15);
+        recordTimes(3L, 20);
+
+        assertThat(hotKeyService.isHot(1L)).isTrue();
+        assertThat(hotKeyService.isHot(2L)).isFalse();
+        assertThat(hotKeyService.isHot(3L)).isTrue();
+    }
+
+    @Test
+    void 기존_핫키보다_빈도가_낮으면_승격되지_않는다() {
+        recordTimes(1L, 30);
+        recordTimes(2L, 30);
+        recordTimes(3L, 12);
+
+        assertThat(hotKeyService.isHot(3L)).isFalse();
+    }
+
+    @Test
+    void 윈도우_교체_후_빈도가_떨어지면_핫키에서_해제된다() {
+        recordTimes(1L, 12);
+        recordTimes(2L, 40);
+
+        hotKeyService.rollWindow();   // 1L: 6 → 임계치 절반(5) 이상 유지
+        assertThat(hotKeyService.isHot(1L)).isTrue();
+
+        hotKeyService.rollWindow();   // 1L: 3 → 해제, 2L: 10 → 유지
+        assertThat(hotKeyService.isHot(1L)).isFalse();
+        assertThat(hotKeyService.isHot(2L)).isTrue();
+    }
+
+    @Test
+    void flush_는_ZSet_에_없는_상품을_DB_조회수로_다시_시드한다() {
+        hotKeyService.bufferIncrement(1L);
+        hotKeyService.bufferIncrement(1L);
+        hotKeyService.bufferIncrement(2L);
+        hotKeyService.bufferIncrement(3L);
+        when(rankingService.scores(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> id == 1L ? 100.0 : null).toList();
+        });
+        // 2L 은 DB 에 있음, 3L 은 DB 에도 없음
+        when(loanRepository.findViewCountsByIdIn(anyList()))
+                .thenReturn(Arrays.asList(new LoanDTO(2L, "상품2", 50L)));
+
+        hotKeyService.flushBufferedIncrements();
+
+        verify(rankingService).incrementAll(eq(Map.of(1L, 2.0)), eq(Map.of(2L, 51.0)));
+        assertThat(hotKeyService.pendingIncrement(1L)).isZero();
+    }
+
+    @Test
+    void 로컬_점수는_핫키일_때만_보관되고_flush_결과로_갱신된다() {
+        hotKeyService.rememberScore(1L, 100.0);
+        assertThat(hotKeyService.localScore(1L)).isNull();
+
+        recordTimes(1L, (int) THRESHOLD);
+        hotKeyService.rememberScore(1L, 100.0);
+        assertThat(hotKeyService.localScore(1L)).isEqualTo(100.0);
+
+        hotKeyService.bufferIncrement(1L);
+        when(rankingService.scores(anyList())).thenReturn(List.of(100.0));
+        when(rankingService.incrementAll(anyMap(), anyMap())).thenReturn(Map.of(1L, 130.0));
+        hotKeyService.flushBufferedIncrements();
+        assertThat(hotKeyService.localScore(1L)).isEqualTo(130.0);
+
+        hotKeyService.evictLocal(1L);
+        assertThat(hotKeyService.localScore(1L)).isNull();
+    }
+
+    @Test
+    void 종료_시_flush_대기_조회수를_반영한다() {
+        hotKeyService.bufferIncrement(1L);
+        when(rankingService.scores(anyList())).thenReturn(List.of(10.0));
+
+        hotKeyService.flushOnShutdown();
+
+        verify(rankingService).incrementAll(eq(Map.of(1L, 1.0)), eq(Map.of()));
+    }
+
+    private void recordTimes(Long loanId, int times) {
+        for (int i = 0; i < times; i++) {
+            hotKeyService.record(loanId);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.loan.domain.LoanDTO;
+import com.fintech.loan.domain.entity.Loan;
+
+class LoanCacheServiceTest {
+
+    // 애플리케이션과 같은 기본 설정의 ObjectMapper (Spring Boot 자동 구성과 동일한 빌더)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final LoanCacheService loanCacheService = new LoanCacheService(
+            null, null, null, null, null, null, null, null, null, objectMapper, null);
+
+    @Test
+    void 이어_붙인_JSON_은_LoanDTO_직렬화_결과와_같다() throws Exception {
+        Loan loan = loan("우리 \"직장인\" 신용대출", "우리은행");
+        LoanDTO dto = new LoanDTO(loan, 1234L);
+        dto.setUniqueViewers(56L);
+
+        byte[] spliced = LoanCacheService.appendLiveFields(loanCacheService.renderStaticJson(loan), 1234L, 56L);
+
+        assertThat(new String(spliced, StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(dto));
+    }
+
+    @Test
+    void uniqueViewers_가_없으면_필드를_생략한다() throws Exception {
+        Loan loan = loan("전세자금대출", null);   // null 컬럼은 LoanDTO 처럼 null 로 직렬화
+        LoanDTO dto = new LoanDTO(loan, 0L);
+
+        byte[] spliced = LoanCacheService.appendLiveFields(loanCacheService.renderStaticJson(loan), 0L, null);
+
+        String json = new String(spliced, StandardCharsets.UTF_8);
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(dto));
+        assertThat(json).doesNotContain("uniqueViewers");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 캐싱된_키_목록은_만료_시각이_지나지_않은_항목만_담는다() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.rangeByScore(eq(LoanCacheService.DETAIL_INDEX_KEY), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenAnswer(invocation -> {
+                    // 점수(만료 시각)가 지금 이후인 항목만 남는지 확인
+                    double from = invocation.getArgument(1);
+                    assertThat(from).isCloseTo(System.currentTimeMillis(), offset(5_000.0));
+                    return Set.of(12, 3);
+                });
+        LoanCacheService service = new LoanCacheService(
+                null, null, redisTemplate, null, null, null, null, null, null, objectMapper, null);
+
+        assertThat(service.getCachedDetailKeys()).containsExactly("loan:12", "loan:3");
+    }
+
+    private Loan loan(String productName, String bank) {
+        Loan loan = new Loan();
+        loan.setId(7L);
+        loan.setProductName(productName);
+        loan.setBank(bank);
+        loan.setJobType("직장인");
+        loan.setPurpose("생활자금");
+        loan.setRateType("변동");
+        loan.setInterestRate("4.5");
+        loan.setMaxLimit(50000000);
+        loan.setPeriodMonths(60);
+        return loan;
+    }
+}
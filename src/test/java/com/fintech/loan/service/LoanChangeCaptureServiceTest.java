@@ -0,0 +1,92 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.entity.LoanProductEvent;
+import com.fintech.loan.repository.LoanProductEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoanChangeCaptureServiceTest {
+
+    private LoanProductEventRepository eventRepository;
+    private LoanCacheService loanCacheService;
+    private RedisTemplate<String, Object> redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private LoanChangeCaptureService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        eventRepository = mock(LoanProductEventRepository.class);
+        loanCacheService = mock(LoanCacheService.class);
+        redisTemplate = mock(RedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        RedisLock redisLock = mock(RedisLock.class);
+        when(redisLock.tryAcquire(anyString(), any())).thenReturn("token");
+
+        service = new LoanChangeCaptureService(eventRepository, loanCacheService, mock(PopularityRankingService.class),
+                redisTemplate, redisLock, meterRegistry);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "maxBatchesPerPoll", 10);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+    }
+
+    @Test
+    void 실패한_이벤트만_남기고_나머지는_처리_완료로_표시한다() {
+        givenEvents(event(1L, 10L, 0), event(2L, 20L, 0));
+        failRefreshOf(20L);
+
+        service.poll();
+
+        verify(eventRepository).markProcessed(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(eventRepository).markFailed(eq(2L), anyString());
+        verify(redisTemplate).convertAndSend(LoanChangeCaptureService.INVALIDATION_CHANNEL, List.of(10L));
+        assertThat(meterRegistry.counter("loan_cdc_events").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 최대_시도_횟수에_도달한_이벤트는_처리_완료로_표시하고_넘어간다() {
+        givenEvents(event(2L, 20L, 2));
+        failRefreshOf(20L);
+
+        service.poll();
+
+        verify(eventRepository).markFailed(eq(2L), anyString());
+        verify(eventRepository).markProcessed(eq(List.of(2L)), any(LocalDateTime.class));
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+        assertThat(meterRegistry.counter("loan_cdc_events_parked").count()).isEqualTo(1.0);
+    }
+
+    private void givenEvents(LoanProductEvent... events) {
+        when(eventRepository.findByProcessedAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(events));
+    }
+
+    private void failRefreshOf(Long loanId) {
+        doThrow(new NullPointerException("bank"))
+                .when(loanCacheService).refreshLoanCaches(argThat(ids -> ids != null && ids.contains(loanId)));
+    }
+
+    private LoanProductEvent event(Long id, Long loanId, int attempts) {
+        return new LoanProductEvent(id, loanId, LoanProductEvent.UPDATE, LocalDateTime.now(), null, attempts, null);
+    }
+}
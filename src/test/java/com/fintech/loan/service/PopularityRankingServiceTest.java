@@ -0,0 +1,213 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import com.fintech.loan.cache.LoanSegmentIndex;
+import com.fintech.loan.cache.PopularityKeyLayout;
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.SegmentAttribute;
+
+class PopularityRankingServiceTest {
+
+    private final PopularityKeyLayout layout = new PopularityKeyLayout(true, 3);
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private LoanSegmentIndex segmentIndex;
+    private RedisLock redisLock;
+    private PopularityRankingService rankingService;
+
+    // 파이프라인 콜백을 실행할 RedisOperations
+    private RedisOperations<String, Object> pipelineOps;
+    private ZSetOperations<String, Object> pipelineZSet;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        segmentIndex = mock(LoanSegmentIndex.class);
+        redisLock = mock(RedisLock.class);
+        rankingService = new PopularityRankingService(redisTemplate, layout, segmentIndex, redisLock);
+
+        pipelineOps = mock(RedisOperations.class);
+        pipelineZSet = mock(ZSetOperations.class);
+        when(pipelineOps.opsForZSet()).thenReturn(pipelineZSet);
+        when(pipelineOps.opsForSet()).thenReturn(mock(SetOperations.class));
+    }
+
+    @Test
+    void topN_은_샤드별_결과를_점수_내림차순으로_병합해_N_개만_반환한다() {
+        // 샤드별 ZREVRANGE 결과 (파이프라인 응답 순서 = allKeys 순서)
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(
+                shard(tuple(1L, 50), tuple(4L, 10)),
+                shard(tuple(2L, 70), tuple(5L, 40)),
+                shard(tuple(3L, 60))));
+
+        List<TypedTuple<Object>> top = rankingService.topN(3);
+
+        assertThat(top).extracting(TypedTuple::getValue).containsExactly(2L, 3L, 1L);
+        assertThat(top).extracting(TypedTuple::getScore).containsExactly(70.0, 60.0, 50.0);
+    }
+
+    @Test
+    void topN_은_비어_있는_샤드를_건너뛴다() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(
+                shard(), null, shard(tuple(9L, 5))));
+
+        assertThat(rankingService.topIds(20)).containsExactly(9L);
+    }
+
+    @Test
+    void scores_는_샤드별로_묶어_조회한_뒤_요청_순서로_되돌린다() {
+        PopularityKeyLayout layout = new PopularityKeyLayout(true, 3);
+        List<Long> ids = Arrays.asList(11L, 12L, 13L, 14L, 15L, 16L);
+
+        // groupByKey 와 같은 순서(첫 등장 샤드 순)로 샤드별 점수 응답 구성
+        List<String> shardOrder = ids.stream().map(layout::keyFor).distinct().toList();
+        List<Object> responses = shardOrder.stream()
+                .map(key -> (Object) ids.stream()
+                        .filter(id -> layout.keyFor(id).equals(key))
+                        .map(id -> (double) id * 10)
+                        .toList())
+                .toList();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(responses);
+
+        assertThat(shardOrder).hasSizeGreaterThan(1);   // 파이프라인 경로
+
+        assertThat(rankingService.scores(ids)).containsExactly(110.0, 120.0, 130.0, 140.0, 150.0, 160.0);
+    }
+
+    @Test
+    void 세그먼트_Top_N_은_세그먼트_샤드별_결과를_병합한다() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(
+                shard(tuple(1L, 30)), shard(tuple(2L, 90), tuple(4L, 5)), shard(tuple(3L, 40))));
+
+        assertThat(rankingService.topIdsInSegment(SegmentAttribute.BANK, "KB", 2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 재구성은_멤버_목록과_전체_순위_샤드의_ZINTERSTORE_로_세그먼트를_교체한다() {
+        when(redisLock.tryAcquire(anyString(), any())).thenReturn("token");
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        SetOperations<String, Object> set = mock(SetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(redisTemplate.opsForSet()).thenReturn(set);
+
+        // 샤드마다 상품 하나, 모두 bank=KB
+        Map<String, Long> idByShard = new HashMap<>();
+        for (long id = 1; idByShard.size() < 3; id++) {
+            idByShard.putIfAbsent(layout.keyFor(id), id);
+        }
+        for (String shardKey : layout.allKeys()) {
+            when(zSet.range(shardKey, 0, -1)).thenReturn(new LinkedHashSet<>(List.of(idByShard.get(shardKey))));
+        }
+        when(segmentIndex.keysFor(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, List<String>> keys = new HashMap<>();
+            ((Collection<Long>) invocation.getArgument(0))
+                    .forEach(id -> keys.put(id, List.of(layout.segmentKeyFor("bank", "KB", id))));
+            return keys;
+        });
+        when(set.members("loan:rank:segments")).thenReturn(Set.of("loan:rank:{bank:OLD}"));
+
+        assertThat(rankingService.rebuildSegments()).isTrue();
+        runPipeline();
+
+        idByShard.forEach((shardKey, id) -> {
+            String segmentKey = layout.segmentKeyFor("bank", "KB", id);
+            verify(pipelineZSet).add(eq(segmentKey + ":rebuild"), eq(Set.of(TypedTuple.of((Object) id, 0.0))));
+            verify(pipelineZSet).intersectAndStore(segmentKey + ":rebuild", List.of(shardKey), segmentKey,
+                    Aggregate.SUM, Weights.of(0, 1));
+        });
+        verify(pipelineOps).delete("loan:rank:{bank:OLD}");
+        verify(pipelineOps, never()).rename(anyString(), anyString());
+        verify(redisLock).release("loan:rank:segments:lock", "token");
+    }
+
+    @Test
+    void 다른_재구성이_락을_잡고_있으면_건너뛴다() {
+        when(redisLock.tryAcquire(anyString(), any())).thenReturn(null);
+
+        assertThat(rankingService.rebuildSegments()).isFalse();
+        verifyNoInteractions(redisTemplate, segmentIndex);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 속성_변경_시_빠진_세그먼트에서만_제거하고_새_세그먼트에_현재_점수로_추가한다() {
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.score(layout.keyFor(7L), new Object[] {7L})).thenReturn(List.of(50.0));
+        when(segmentIndex.invalidate(List.of(7L))).thenReturn(Map.of(7L, List.of("seg:A", "seg:B")));
+        when(segmentIndex.keysFor(List.of(7L))).thenReturn(Map.of(7L, List.of("seg:B", "seg:C")));
+
+        rankingService.reassignSegments(List.of(7L));
+        runPipeline();
+
+        verify(pipelineZSet).remove("seg:A", 7L);
+        verify(pipelineZSet, never()).remove(eq("seg:B"), any());
+        verify(pipelineZSet).add("seg:B", 7L, 50.0);
+        verify(pipelineZSet).add("seg:C", 7L, 50.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 전체_순위에_없는_상품은_이전_세그먼트에서만_제거한다() {
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.score(layout.keyFor(7L), new Object[] {7L})).thenReturn(Arrays.asList((Double) null));
+        when(segmentIndex.invalidate(List.of(7L))).thenReturn(Map.of(7L, List.of("seg:A")));
+        when(segmentIndex.keysFor(List.of(7L))).thenReturn(Map.of(7L, List.of("seg:C")));
+
+        rankingService.reassignSegments(List.of(7L));
+        runPipeline();
+
+        verify(pipelineZSet).remove("seg:A", 7L);
+        verify(pipelineZSet, never()).add(anyString(), any(), any(Double.class));
+    }
+
+    /** 마지막 executePipelined 콜백을 pipelineOps 로 실행 */
+    @SuppressWarnings("unchecked")
+    private void runPipeline() {
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+        callback.getValue().execute(pipelineOps);
+    }
+
+    @SafeVarargs
+    private static Set<TypedTuple<Object>> shard(TypedTuple<Object>... tuples) {
+        return new LinkedHashSet<>(Arrays.asList(tuples));
+    }
+
+    private static TypedTuple<Object> tuple(Long loanId, double score) {
+        return TypedTuple.of(loanId, score);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UniqueViewerServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    @Test
+    void 새_viewer_판단은_PFADD_가_아닌_SETBIT_이전_값으로_한다() {
+        UniqueViewerService service = new UniqueViewerService(redisTemplate, new SimpleMeterRegistry(), true, 24, 1024);
+        // 상품별 (PFADD, EXPIRE, SETBIT 이전 비트, EXPIRE) 응답
+        // 1L: 레지스터 변화 없음(PFADD 0) 이지만 비트가 비어 있던 viewer → 새 조회
+        // 2L: PFADD 1 이지만 이미 비트가 켜져 있던 viewer → 중복
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(
+                0L, true, false, true,
+                1L, true, true, true));
+
+        assertThat(service.recordViews(List.of(1L, 2L), "viewer-a")).containsExactly(1L);
+    }
+
+    @Test
+    void 비활성이거나_viewer_가_없으면_모두_새_조회로_본다() {
+        UniqueViewerService disabled = new UniqueViewerService(redisTemplate, new SimpleMeterRegistry(), false, 24, 1024);
+        UniqueViewerService enabled = new UniqueViewerService(redisTemplate, new SimpleMeterRegistry(), true, 24, 1024);
+
+        assertThat(disabled.recordViews(List.of(1L, 2L), "viewer-a")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(enabled.recordViews(List.of(3L), null)).containsExactly(3L);
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void 비트맵_오프셋은_viewer_마다_고정이고_크기_안에_있다() {
+        UniqueViewerService service = new UniqueViewerService(redisTemplate, new SimpleMeterRegistry(), true, 24, 1024);
+
+        for (int i = 0; i < 1000; i++) {
+            long offset = service.bitOffset("viewer-" + i);
+            assertThat(offset).isBetween(0L, 1023L);
+            assertThat(service.bitOffset("viewer-" + i)).isEqualTo(offset);
+        }
+    }
+}
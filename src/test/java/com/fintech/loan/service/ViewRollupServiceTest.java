@@ -0,0 +1,158 @@
+package com.fintech.loan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.fintech.loan.cache.RedisLock;
+import com.fintech.loan.domain.RollupPeriod;
+import com.fintech.loan.repository.LoanViewRepository;
+import com.fintech.loan.repository.ViewRollupRepository;
+
+class ViewRollupServiceTest {
+
+    private static final String PENDING_KEY = "loan:rollup:pending";
+    private static final String FLUSHING_KEY = "loan:rollup:flushing";
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private SetOperations<String, Object> setOps;
+    private HashOperations<String, Object, Object> hashOps;
+    private ValueOperations<String, Object> valueOps;
+    private ViewRollupRepository rollupRepository;
+    private LoanViewRepository loanViewRepository;
+    private RedisLock redisLock;
+
+    private final LocalDateTime lastHour = RollupPeriod.HOUR.startOf(LocalDateTime.now()).minusHours(1);
+    private final String endedId = "H:" + RollupPeriod.HOUR.bucketOf(lastHour);
+    private final String liveKey = "loan:rollup:{" + endedId + "}:live";
+    private final String flushKey = "loan:rollup:{" + endedId + "}:flush";
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        setOps = mock(SetOperations.class);
+        hashOps = mock(HashOperations.class);
+        valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        rollupRepository = mock(ViewRollupRepository.class);
+        loanViewRepository = mock(LoanViewRepository.class);
+        redisLock = mock(RedisLock.class);
+        when(redisLock.tryAcquire(anyString(), any())).thenReturn("token");
+    }
+
+    @Test
+    void 끝난_기간은_pending_에서_빼고_RENAME_후_flushId_로_MERGE_한다() {
+        String currentId = "H:" + RollupPeriod.HOUR.bucketOf(LocalDateTime.now());
+        when(setOps.members(PENDING_KEY)).thenReturn(new LinkedHashSet<>(List.of(endedId, currentId)));
+        when(setOps.members(FLUSHING_KEY)).thenReturn(Set.of(endedId));
+        // 남은 flush 키 없음 → live 있음 → RENAME 후 flush 키 존재
+        when(redisTemplate.hasKey(flushKey)).thenReturn(false, true);
+        when(redisTemplate.hasKey(liveKey)).thenReturn(true);
+        when(hashOps.entries(flushKey)).thenReturn(new HashMap<>(Map.of("flushId", "batch-1", "7", 5)));
+
+        service(true).flushToDatabase();
+
+        InOrder order = inOrder(setOps, redisTemplate, hashOps, rollupRepository, redisLock);
+        order.verify(setOps).add(FLUSHING_KEY, endedId);
+        order.verify(setOps).remove(PENDING_KEY, endedId);
+        order.verify(redisTemplate).rename(liveKey, flushKey);
+        order.verify(hashOps).putIfAbsent(eq(flushKey), eq("flushId"), anyString());
+        order.verify(rollupRepository).mergeAll(RollupPeriod.HOUR, lastHour, "batch-1", Map.of(7L, 5L));
+        order.verify(redisTemplate).delete(flushKey);
+        order.verify(setOps).remove(FLUSHING_KEY, endedId);
+        order.verify(redisLock).release(anyString(), eq("token"));
+
+        // 진행 중인 기간은 그대로
+        verify(setOps, never()).add(FLUSHING_KEY, currentId);
+        verify(setOps, never()).remove(PENDING_KEY, currentId);
+    }
+
+    @Test
+    void 저장_후_삭제_전에_멈춘_flush_키는_같은_flushId_로_다시_MERGE_한다() {
+        when(setOps.members(PENDING_KEY)).thenReturn(Set.of());
+        when(setOps.members(FLUSHING_KEY)).thenReturn(Set.of(endedId));
+        when(redisTemplate.hasKey(flushKey)).thenReturn(true);
+        when(redisTemplate.hasKey(liveKey)).thenReturn(false);
+        // 지난 실행에서 정해 둔 flushId 가 Hash 에 남아 있음 (putIfAbsent 는 덮어쓰지 않음)
+        when(hashOps.entries(flushKey)).thenReturn(new HashMap<>(Map.of("flushId", "batch-1", "7", 5)));
+
+        service(true).flushToDatabase();
+
+        verify(rollupRepository).mergeAll(RollupPeriod.HOUR, lastHour, "batch-1", Map.of(7L, 5L));
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+        verify(setOps).remove(FLUSHING_KEY, endedId);
+    }
+
+    @Test
+    void 저장에_실패하면_flushing_에_남겨_다음_실행에서_재시도한다() {
+        when(setOps.members(PENDING_KEY)).thenReturn(Set.of());
+        when(setOps.members(FLUSHING_KEY)).thenReturn(Set.of(endedId));
+        when(redisTemplate.hasKey(flushKey)).thenReturn(true);
+        when(hashOps.entries(flushKey)).thenReturn(new HashMap<>(Map.of("flushId", "batch-1", "7", 5)));
+        doThrow(new IllegalStateException("db down"))
+                .when(rollupRepository).mergeAll(any(), any(), anyString(), any());
+
+        assertThatThrownBy(() -> service(true).flushToDatabase()).isInstanceOf(IllegalStateException.class);
+
+        verify(redisTemplate, never()).delete(flushKey);
+        verify(setOps, never()).remove(FLUSHING_KEY, endedId);
+        verify(redisLock).release(anyString(), eq("token"));
+    }
+
+    @Test
+    void 락을_잡지_못하면_아무것도_하지_않는다() {
+        when(redisLock.tryAcquire(anyString(), any())).thenReturn(null);
+
+        service(true).flushToDatabase();
+
+        verify(setOps, never()).members(anyString());
+    }
+
+    @Test
+    void 롤업이_꺼져_있으면_누적_카운터를_초기화하지_않고_DB_합계를_반환한다() {
+        when(loanViewRepository.sumViewCount()).thenReturn(1234L);
+
+        assertThat(service(false).getTotalViews()).isEqualTo(1234L);
+        verify(valueOps, never()).setIfAbsent(anyString(), any());
+    }
+
+    @Test
+    void Top_N_limit_은_1_이상_50_이하만_허용한다() {
+        ViewRollupService service = service(true);
+
+        assertThatThrownBy(() -> service.getTop(RollupPeriod.DAY, LocalDateTime.now(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getTop(RollupPeriod.DAY, LocalDateTime.now(), 51))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ViewRollupService service(boolean enabled) {
+        return new ViewRollupService(redisTemplate, rollupRepository, loanViewRepository, redisLock, enabled);
+    }
+}